@@ -0,0 +1,41 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.vsu.cs.tolkacheva_u_a.task2.controller.AIController;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Move;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк выбора случайного хода ботом: генерация всех ходов и создание объектов Move.
+ * Журнал бота в System.out на время замера отключается.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AIControllerBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public GamePhase phase;
+
+    private AIController aiController;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        aiController = new AIController(phase.createBoard());
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        aiController.shutdown();
+    }
+
+    @Benchmark
+    public Move getRandomMoveForCurrentPlayer() {
+        return aiController.getRandomMoveForCurrentPlayer();
+    }
+}
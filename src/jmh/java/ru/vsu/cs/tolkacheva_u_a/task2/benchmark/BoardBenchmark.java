@@ -0,0 +1,44 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки доступа к доске: поиск фигуры на поле и копирование доски.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public GamePhase phase;
+
+    private Board board;
+    private Hex[] cells;
+
+    @Setup
+    public void setUp() {
+        board = phase.createBoard();
+        cells = new Hex[HexGrid.CELL_COUNT];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = HexGrid.cellAt(i);
+        }
+    }
+
+    /** Поиск фигуры на каждом из 91 поля по координатам. */
+    @Benchmark
+    public void getPieceAtAllCells(Blackhole blackhole) {
+        for (Hex cell : cells) {
+            blackhole.consume(board.getPieceAt(cell));
+        }
+    }
+
+    @Benchmark
+    public Board copy() {
+        return board.copy();
+    }
+}
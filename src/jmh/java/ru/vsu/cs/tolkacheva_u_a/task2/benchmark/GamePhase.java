@@ -0,0 +1,39 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.tools.Perft;
+
+/**
+ * Позиции для бенчмарков: дебют, миттельшпиль и эндшпиль.
+ * Позиция задается ходами от начальной расстановки в нотации Глинского.
+ */
+public enum GamePhase {
+    /** Дебют после 6 полуходов, почти весь материал на доске. */
+    OPENING("k1-k2 c7-c6 e4-e5 e7-e6 f3-c6 d7-c6"),
+
+    /** Миттельшпиль после 20 полуходов с разменами. */
+    MIDDLEGAME("k1-k2 c7-c6 e4-e5 e7-e6 f3-c6 d7-c6 f2-i5 k7-k6 i1-b4 i8-b4 e1-b4 d9-d7 b4-b7 d7-b7 " +
+            "d1-f3 e10-e9 c1-e3 c6-c5 f3-d2 c8-c7"),
+
+    /** Эндшпиль: короли, легкие фигуры и пешки. */
+    ENDGAME("c1-e3 i8-h8 k1-k2 c7-c6 e3-f4 b7-b6 f4-c1 g10-g8 e1-e3 g8-k2 i2-k2 i7-i6 i1-i6 h7-i6 " +
+            "e3-b6 h8-h3 h1-h3 c6-c5 f2-c5 c8-c5 b6-f10 h9-f10 g1-f2 c5-c2 d1-c2 f10-h8 c2-d1 g7-g6 " +
+            "h3-f4 d9-b7 b1-b2 h8-h6 k2-k3 h6-h8 f2-e1 e10-f10 f4-h2 g6-g5 f5-g5 f10-e10 c1-c8 e10-e9 " +
+            "c8-b7 f9-i3 h2-i3 e7-e6 b7-f11 e6-e5 f11-f7 e9-e10 f7-d7 e10-f11 d7-d8 h8-f9 d8-c8 f11-g10 " +
+            "c8-d8 f9-d8 d1-c2 g10-f10");
+
+    private final String moves;
+
+    GamePhase(String moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Создает доску с позицией этой стадии партии.
+     */
+    public Board createBoard() {
+        Board board = new Board();
+        Perft.playMoves(board, moves);
+        return board;
+    }
+}
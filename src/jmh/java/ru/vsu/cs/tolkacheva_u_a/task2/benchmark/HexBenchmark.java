@@ -0,0 +1,47 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки арифметики координат: сложение с направлением и хеш-код поля.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HexBenchmark {
+    private Hex[] cells;
+
+    @Setup
+    public void setUp() {
+        cells = new Hex[HexGrid.CELL_COUNT];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = HexGrid.cellAt(i);
+        }
+    }
+
+    /** Сдвиг каждого поля во всех 12 направлениях ладьи и слона. */
+    @Benchmark
+    public void addAllDirections(Blackhole blackhole) {
+        for (Hex cell : cells) {
+            for (Hex direction : HexGrid.ROOK_DIRECTIONS) {
+                blackhole.consume(cell.add(direction));
+            }
+            for (Hex direction : HexGrid.BISHOP_DIRECTIONS) {
+                blackhole.consume(cell.add(direction));
+            }
+        }
+    }
+
+    @Benchmark
+    public int hashCodeAllCells() {
+        int hash = 0;
+        for (Hex cell : cells) {
+            hash += cell.hashCode();
+        }
+        return hash;
+    }
+}
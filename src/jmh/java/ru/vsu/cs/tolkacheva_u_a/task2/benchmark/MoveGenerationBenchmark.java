@@ -0,0 +1,51 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.tools.Perft;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки генерации допустимых ходов на объектной и битовой доске и perft на глубину 3.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoveGenerationBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public GamePhase phase;
+
+    private Board board;
+    private BitBoard bitBoard;
+    private MoveList moves;
+    private Perft perft;
+
+    @Setup
+    public void setUp() {
+        board = phase.createBoard();
+        bitBoard = new BitBoard(board);
+        moves = new MoveList();
+        perft = new Perft(bitBoard);
+    }
+
+    @Benchmark
+    public int generateLegalMovesBoard() {
+        moves.clear();
+        board.generateLegalMoves(moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public int generateLegalMovesBitBoard() {
+        moves.clear();
+        bitBoard.generateLegalMoves(moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public long perft3() {
+        return perft.perft(3);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Piece;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки проверки правил: допустимость хода, шах и наличие ходов.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoveValidatorBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public GamePhase phase;
+
+    private Board board;
+    private MoveValidator moveValidator;
+    private List<Piece> pieces;
+
+    @Setup
+    public void setUp() {
+        board = phase.createBoard();
+        moveValidator = new MoveValidator(board);
+        pieces = new ArrayList<>();
+        for (Piece piece : board.getPieces()) {
+            if (!piece.isCaptured() && piece.getColor() == board.getCurrentPlayer()) {
+                pieces.add(piece);
+            }
+        }
+    }
+
+    /** Проверка хода каждой фигурой текущего игрока на каждое поле доски. */
+    @Benchmark
+    public void isValidMoveAllTargets(Blackhole blackhole) {
+        for (Piece piece : pieces) {
+            for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+                Hex destination = HexGrid.cellAt(cell);
+                blackhole.consume(moveValidator.isValidMove(piece, destination));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return moveValidator.isKingInCheck(board.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public boolean hasLegalMoves() {
+        return moveValidator.hasLegalMoves(board.getCurrentPlayer());
+    }
+}
@@ -2,7 +2,13 @@ package ru.vsu.cs.tolkacheva_u_a.task2;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordWriter;
 import ru.vsu.cs.tolkacheva_u_a.task2.view.GameUI;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Главный класс приложения шестиугольных шахмат Глинского.
@@ -13,15 +19,56 @@ public class Main extends Application {
 
     private static GameMode gameMode = GameMode.INTERACTIVE;
     private static PlayerColor playerColor = PlayerColor.RANDOM;
+    private static final EngineConfig engineConfig = new EngineConfig();
+    private static String recordFile;
+    private GameRecordWriter recordWriter;
 
     /**
      * Точка входа в приложение. Обрабатывает аргументы командной строки.
      */
     public static void main(String[] args) {
-        parseArguments(args);
+        parseArguments(parseEngineOptions(args));
         launch(args);
     }
 
+    /**
+     * Разбирает параметры бота вида "--depth N", "--movetime MS", "--hash MB" и "--threads N"
+     * и параметр "--record FILE" - файл, в который дописываются сыгранные партии.
+     * Возвращает остальные аргументы для выбора режима игры.
+     */
+    private static String[] parseEngineOptions(String[] args) {
+        List<String> rest = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i].trim();
+            if (!option.startsWith("--")) {
+                rest.add(args[i]);
+                continue;
+            }
+
+            if (i + 1 >= args.length) {
+                System.out.println("Не указано значение параметра " + option);
+                break;
+            }
+            String value = args[++i].trim();
+            if (option.equals("--record")) {
+                recordFile = value;
+                continue;
+            }
+
+            try {
+                if (!engineConfig.setOption(option, value)) {
+                    System.out.println("Неизвестный параметр " + option);
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("Неверное значение параметра " + option + ": " + value +
+                        ". Используется значение по умолчанию.");
+            }
+        }
+
+        return rest.toArray(new String[0]);
+    }
+
     /**
      * Парсит аргументы командной строки для определения режима игры.
      */
@@ -56,8 +103,26 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        if (recordFile != null) {
+            try {
+                recordWriter = new GameRecordWriter(Path.of(recordFile), true);
+            } catch (IOException e) {
+                System.out.println("Не удалось открыть файл записи партий: " + e.getMessage());
+            }
+        }
+
         GameUI gameUI = new GameUI(primaryStage);
-        gameUI.initialize(gameMode, playerColor);
+        gameUI.initialize(gameMode, playerColor, engineConfig, recordWriter);
+    }
+
+    /**
+     * Закрывает файл записи партий при выходе из приложения.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (recordWriter != null) {
+            recordWriter.close();
+        }
     }
 
     /**
@@ -1,41 +1,168 @@
 package ru.vsu.cs.tolkacheva_u_a.task2.controller;
 
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.OpeningBook;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.ParallelSearch;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.SearchResult;
 import ru.vsu.cs.tolkacheva_u_a.task2.model.*;
-import ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator;
 import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Контроллер бота для игры в шестиугольные шахматы.
- * Делает случайные допустимые ходы для любого игрока.
+ * Выбирает ход параллельным перебором {@link ParallelSearch} или случайный допустимый ход.
+ * Если задана книга дебютов и позиция в ней есть, ход берется из книги без перебора.
  */
 public class AIController {
     private final Board board;
-    private final MoveValidator moveValidator;
-    private final Random random;
+    private final BitBoard position;
+    private final MoveList moveList;
+    private final ParallelSearch search;
+    private final SplittableRandom random;
+    private final OpeningBook book;
+    private ExecutorService searchExecutor;
+    private boolean verbose = true;
 
     public AIController(Board board) {
+        this(board, new EngineConfig());
+    }
+
+    public AIController(Board board, EngineConfig engineConfig) {
+        this(board, engineConfig, engineConfig.createRandom());
+    }
+
+    /**
+     * Создает бота с заданным генератором случайных чисел.
+     * С одинаковым зерном бот делает одинаковые случайные ходы.
+     */
+    public AIController(Board board, EngineConfig engineConfig, SplittableRandom random) {
         this.board = board;
-        this.moveValidator = new MoveValidator(board);
-        this.random = new Random();
+        this.position = new BitBoard();
+        this.moveList = new MoveList();
+        this.search = new ParallelSearch(engineConfig);
+        this.random = random;
+        this.book = engineConfig.getBook();
     }
 
     /**
-     * Возвращает случайный допустимый ход для указанного цвета.
+     * Возвращает лучший найденный ход для текущего игрока на доске.
+     * Поиск укладывается в оставшееся время партии remainingMillis.
      */
-    public Move getRandomMoveForPlayer(PlayerColor playerColor) {
-        List<Move> allMoves = getAllPossibleMoves(playerColor);
+    public Move getBestMoveForCurrentPlayer(long remainingMillis) {
+        return toMove(findBestMove(remainingMillis));
+    }
+
+    /**
+     * Возвращает лучший ход для текущего игрока, упакованный в {@link PackedMove},
+     * или {@link PackedMove#NONE}, если допустимых ходов нет.
+     */
+    public int findBestMove(long remainingMillis) {
+        int bookMove = findBookMove();
+        if (bookMove != PackedMove.NONE) {
+            return bookMove;
+        }
+
+        search.setPosition(board);
+        return bestMoveOf(search.search(remainingMillis));
+    }
+
+    /**
+     * Запускает поиск лучшего хода в отдельном потоке, чтобы не блокировать интерфейс.
+     * Позиция копируется в вызывающем потоке; пока поиск не завершен, доску нельзя изменять.
+     */
+    public CompletableFuture<Move> findBestMoveAsync(long remainingMillis) {
+        if (searchExecutor == null) {
+            searchExecutor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                thread.setName("AI-Search-Thread");
+                return thread;
+            });
+        }
+
+        int bookMove = findBookMove();
+        if (bookMove != PackedMove.NONE) {
+            return CompletableFuture.completedFuture(toMove(bookMove));
+        }
+
+        search.setPosition(board);
+        return CompletableFuture.supplyAsync(() -> search.search(remainingMillis), searchExecutor)
+                .thenApply(result -> toMove(bestMoveOf(result)));
+    }
+
+    /**
+     * Включает или отключает вывод выбранных ходов в консоль.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Прерывает поиск и останавливает потоки бота.
+     */
+    public void shutdown() {
+        search.shutdown();
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Возвращает случайный по весам ход из книги дебютов или {@link PackedMove#NONE},
+     * если книги нет или позиции в ней нет. Ход из книги проверяется по правилам на битовой копии доски.
+     */
+    private int findBookMove() {
+        if (book == null) {
+            return PackedMove.NONE;
+        }
 
-        if (allMoves.isEmpty()) {
-            System.out.println("Бот не нашел допустимых ходов для " + playerColor);
+        position.copyFrom(board);
+        int bookMove = book.probe(position.getZobristKey(), random);
+        if (bookMove == PackedMove.NONE) {
+            return PackedMove.NONE;
+        }
+
+        moveList.clear();
+        position.generateLegalMoves(moveList);
+        int move = moveList.find(PackedMove.from(bookMove), PackedMove.to(bookMove));
+        if (move != PackedMove.NONE) {
+            log("Бот выбрал ход из книги дебютов: " + GlinskiNotation.moveName(move));
+        }
+        return move;
+    }
+
+    private int bestMoveOf(SearchResult result) {
+        if (!result.hasMove()) {
+            log("Бот не нашел допустимых ходов для " + board.getCurrentPlayer());
+            return PackedMove.NONE;
+        }
+
+        log("Бот выбрал ход: " + GlinskiNotation.moveName(result.getBestMove()) + " (" + result + ")");
+        return result.getBestMove();
+    }
+
+    /**
+     * Переводит упакованный ход в ход с объектами фигур доски для интерфейса и истории партии.
+     */
+    private Move toMove(int move) {
+        if (move == PackedMove.NONE) {
             return null;
         }
 
-        Move selectedMove = allMoves.get(random.nextInt(allMoves.size()));
-        System.out.println("Бот выбрал ход: " + selectedMove);
-        return selectedMove;
+        Piece piece = board.getPieceAt(PackedMove.from(move));
+        Piece targetPiece = board.getPieceAt(PackedMove.to(move));
+        return new Move(piece, HexGrid.cellAt(PackedMove.to(move)), targetPiece);
+    }
+
+    /**
+     * Возвращает случайный допустимый ход для указанного цвета.
+     */
+    public Move getRandomMoveForPlayer(PlayerColor playerColor) {
+        return toMove(findRandomMove(playerColor));
     }
 
     /**
@@ -46,33 +173,31 @@ public class AIController {
     }
 
     /**
-     * Возвращает все возможные ходы для указанного цвета.
+     * Возвращает случайный допустимый ход для указанного цвета, упакованный в {@link PackedMove},
+     * или {@link PackedMove#NONE}, если ходов нет или сейчас ход другого игрока.
+     * Ходы генерируются на битовой копии доски.
      */
-    private List<Move> getAllPossibleMoves(PlayerColor color) {
-        List<Move> possibleMoves = new ArrayList<>();
-
-        // Проходим по всем фигурам указанного цвета
-        for (Piece piece : board.getPieces()) {
-            if (piece.getColor() == color && !piece.isCaptured()) {
-                // Для каждой фигуры проверяем все поля на доске
-                for (int q = -5; q <= 5; q++) {
-                    for (int r = -5; r <= 5; r++) {
-                        int s = -q - r;
-                        if (Math.abs(s) <= 5) {
-                            Hex destination = new Hex(q, r, s);
-
-                            // Проверяем, является ли ход допустимым
-                            if (moveValidator.isValidMove(piece, destination)) {
-                                Piece targetPiece = board.getPieceAt(destination);
-                                possibleMoves.add(new Move(piece, destination, targetPiece));
-                            }
-                        }
-                    }
-                }
-            }
+    public int findRandomMove(PlayerColor color) {
+        moveList.clear();
+        position.copyFrom(board);
+        if (position.getCurrentPlayer() == color) {
+            position.generateLegalMoves(moveList);
+        }
+
+        log("Найдено ходов для " + color + ": " + moveList.size());
+        if (moveList.isEmpty()) {
+            log("Бот не нашел допустимых ходов для " + color);
+            return PackedMove.NONE;
         }
 
-        System.out.println("Найдено ходов для " + color + ": " + possibleMoves.size());
-        return possibleMoves;
+        int move = moveList.get(random.nextInt(moveList.size()));
+        log("Бот выбрал ход: " + GlinskiNotation.moveName(move));
+        return move;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
     }
 }
\ No newline at end of file
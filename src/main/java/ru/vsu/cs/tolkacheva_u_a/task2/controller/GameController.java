@@ -3,12 +3,17 @@ package ru.vsu.cs.tolkacheva_u_a.task2.controller;
 import ru.vsu.cs.tolkacheva_u_a.task2.view.HexBoardView;
 import ru.vsu.cs.tolkacheva_u_a.task2.view.GameUI;
 import ru.vsu.cs.tolkacheva_u_a.task2.Main;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
 import ru.vsu.cs.tolkacheva_u_a.task2.model.*;
-import ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordWriter;
 import javafx.application.Platform;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 /**
  * Главный контроллер игры.
@@ -21,36 +26,52 @@ public class GameController {
     private final HexBoardView boardView;
     private final GameUI gameUI;
     private Board board;
-    private MoveValidator moveValidator;
+    private final BitBoard position;
+    private TurnState turnState;
     private AIController aiController;
+    private EngineConfig engineConfig;
     private Main.GameMode gameMode;
     private Main.PlayerColor humanPlayerColor;
     private Hex selectedHex;
     private Piece selectedPiece;
     private boolean isGameActive;
+    private boolean isAIThinking;
     private List<Move> moveHistory;
-    private Random random;
+    private SplittableRandom random;
     private Thread observerThread;
     private int observerMoveCount = 0;
+    private GameRecordWriter recordWriter;
 
     public GameController(HexBoardView boardView, GameUI gameUI) {
         this.boardView = boardView;
         this.gameUI = gameUI;
+        this.engineConfig = new EngineConfig();
         this.moveHistory = new ArrayList<>();
-        this.random = new Random();
+        this.position = new BitBoard();
+        this.random = new SplittableRandom();
         this.isGameActive = false;
         this.selectedHex = null;
         this.selectedPiece = null;
         this.observerThread = null;
     }
 
+    /**
+     * Задает файл, в который по ходу игры записываются партии; null - не записывать.
+     * Вызывается до {@link #initializeGame}.
+     */
+    public void setRecordWriter(GameRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
     /**
      * Инициализирует игру в указанном режиме.
      * Настраивает параметры игры в соответствии с переданными аргументами.
      */
-    public void initializeGame(Main.GameMode gameMode, Main.PlayerColor playerColor) {
+    public void initializeGame(Main.GameMode gameMode, Main.PlayerColor playerColor, EngineConfig engineConfig) {
 
         this.gameMode = gameMode;
+        this.engineConfig = engineConfig;
+        this.random = engineConfig.createRandom();
 
         if (gameMode == Main.GameMode.NON_INTERACTIVE) {
             this.humanPlayerColor = null;
@@ -88,21 +109,36 @@ public class GameController {
             }
         }
 
+        if (aiController != null) {
+            aiController.shutdown();
+        }
+
+        if (isGameActive) {
+            endRecord(GameRecord.UNFINISHED);
+        }
+
         board = new Board();
-        moveValidator = new MoveValidator(board);
-        aiController = new AIController(board);
+        turnState = null;
+        aiController = new AIController(board, engineConfig, random.split());
+        isAIThinking = false;
 
         moveHistory.clear();
         selectedHex = null;
         selectedPiece = null;
         isGameActive = true;
         observerMoveCount = 0;
+        beginRecord();
 
         boardView.clearBoard();
         boardView.createBoard();
 
-        for (Piece piece : board.getPieces()) {
-            boardView.drawPiece(piece, piece.getPosition());
+        for (Main.PlayerColor color : new Main.PlayerColor[]{Main.PlayerColor.WHITE, Main.PlayerColor.BLACK}) {
+            for (PieceType type : PieceType.values()) {
+                for (int i = 0; i < board.getPieceCount(color, type); i++) {
+                    Piece piece = board.getPieceAt(board.getPieceCell(color, type, i));
+                    boardView.drawPiece(piece, piece.getPosition());
+                }
+            }
         }
 
         updateUI();
@@ -192,7 +228,8 @@ public class GameController {
                 highlightValidMoves(selectedPiece);
                 gameUI.updateStatus("Выбрана " + selectedPiece.getType() + ". Выберите поле для хода.");
             } else {
-                if (selectedPiece != null && moveValidator.isValidMove(selectedPiece, hex)) {
+                if (selectedPiece != null && getTurnState().isLegal(
+                        HexGrid.indexOf(selectedPiece.getPosition()), HexGrid.indexOf(hex))) {
                     executeMove(selectedPiece, hex);
                     clearSelection();
 
@@ -222,10 +259,11 @@ public class GameController {
      * Выполняет ход за бота.
      * В режиме наблюдения бот делает ходы за обоих игроков,
      * в интерактивном режиме - только за противника человека.
-     * Выбирает случайный допустимый ход из доступных для текущего игрока.
+     * Ход ищется перебором в фоновом потоке в пределах оставшегося времени партии,
+     * результат применяется в потоке JavaFX после завершения поиска.
      */
     public void makeAIMove() {
-        if (!isGameActive) {
+        if (!isGameActive || isAIThinking) {
             return;
         }
 
@@ -235,13 +273,35 @@ public class GameController {
             return;
         }
 
-        Move aiMove = aiController.getRandomMoveForCurrentPlayer();
+        long remainingMillis = gameUI.getGameTimer() != null ?
+                gameUI.getGameTimer().getRemainingMillis() : Long.MAX_VALUE;
+        AIController searchingController = aiController;
+        isAIThinking = true;
 
-        if (aiMove != null) {
-            executeMove(aiMove.getPiece(), aiMove.getDestination());
-        } else {
-            checkGameState();
-        }
+        searchingController.findBestMoveAsync(remainingMillis).whenComplete((aiMove, error) ->
+                Platform.runLater(() -> {
+                    // За время поиска могла начаться новая партия
+                    if (searchingController != aiController) {
+                        return;
+                    }
+                    isAIThinking = false;
+                    if (!isGameActive) {
+                        return;
+                    }
+
+                    Move move = aiMove;
+                    if (error != null) {
+                        // Без хода бота партия остановится, поэтому бот ходит случайным допустимым ходом
+                        System.err.println("Ошибка поиска хода: " + error.getMessage());
+                        move = aiController.getRandomMoveForCurrentPlayer();
+                    }
+
+                    if (move != null) {
+                        executeMove(move.getPiece(), move.getDestination());
+                    } else {
+                        checkGameState();
+                    }
+                }));
     }
 
     /**
@@ -255,6 +315,7 @@ public class GameController {
         Piece targetPiece = board.getPieceAt(destination);
         Move move = new Move(piece, destination, targetPiece);
         moveHistory.add(move);
+        recordMove(piece, destination);
 
         if (targetPiece != null) {
             targetPiece.capture();
@@ -263,6 +324,7 @@ public class GameController {
 
         boardView.movePiece(startPosition, destination);
         board.movePiece(piece, destination);
+        turnState = null;
 
 
         checkGameState();
@@ -275,23 +337,35 @@ public class GameController {
      * При отсутствии допустимых ходов завершает игру с соответствующим сообщением.
      */
     private void checkGameState() {
-        boolean hasLegalMoves = moveValidator.hasLegalMoves(board.getCurrentPlayer());
+        TurnState state = getTurnState();
 
-        if (!hasLegalMoves) {
-            boolean isCheck = moveValidator.isKingInCheck(board.getCurrentPlayer());
-
-            if (isCheck) {
+        if (state.isGameOver()) {
+            if (state.getStatus() == TurnState.Status.CHECKMATE) {
                 Main.PlayerColor winner = (board.getCurrentPlayer() == Main.PlayerColor.WHITE) ?
                         Main.PlayerColor.BLACK : Main.PlayerColor.WHITE;
+                endRecord(resultFor(winner));
                 endGame("Мат! " + getPlayerName(winner) + " побеждают!");
             } else {
                 Main.PlayerColor winner = (board.getCurrentPlayer() == Main.PlayerColor.WHITE) ?
                         Main.PlayerColor.BLACK : Main.PlayerColor.WHITE;
+                endRecord(resultFor(winner));
                 endGame("Пат! " + getPlayerName(winner) + " выигрывают.");
             }
         }
     }
 
+    /**
+     * Возвращает состояние текущего полухода, вычисляя его при первом обращении.
+     * Состояние сбрасывается только ходом ({@link #executeMove}) и новой партией.
+     */
+    private TurnState getTurnState() {
+        if (turnState == null) {
+            position.copyFrom(board);
+            turnState = new TurnState(position);
+        }
+        return turnState;
+    }
+
     /**
      * Возвращает имя игрока по его цвету с учетом текущего режима игры.
      */
@@ -326,22 +400,16 @@ public class GameController {
 
     /**
      * Подсвечивает допустимые ходы для выбранной фигуры.
-     * Определяет все поля, на которые фигура может переместиться согласно правилам,
+     * Получает от генератора все поля, на которые фигура может переместиться согласно правилам,
      * и выделяет их на графическом представлении доски.
      */
     private void highlightValidMoves(Piece piece) {
-        List<Hex> validMoves = new ArrayList<>();
-
-        for (int q = -5; q <= 5; q++) {
-            for (int r = -5; r <= 5; r++) {
-                int s = -q - r;
-                if (Math.abs(s) <= 5) {
-                    Hex destination = new Hex(q, r, s);
-                    if (moveValidator.isValidMove(piece, destination)) {
-                        validMoves.add(destination);
-                    }
-                }
-            }
+        TurnState state = getTurnState();
+        int from = HexGrid.indexOf(piece.getPosition());
+
+        List<Hex> validMoves = new ArrayList<>(state.getMoveCount(from));
+        for (int i = 0; i < state.getMoveCount(from); i++) {
+            validMoves.add(HexGrid.cellAt(PackedMove.to(state.getMove(from, i))));
         }
 
         boardView.highlightSelectedHex(piece.getPosition(), true);
@@ -383,7 +451,7 @@ public class GameController {
             }
         }
 
-        if (moveValidator.isKingInCheck(board.getCurrentPlayer())) {
+        if (getTurnState().isInCheck()) {
             status += " (ШАХ!)";
         }
         gameUI.updateStatus(status);
@@ -410,6 +478,7 @@ public class GameController {
         }
 
         isGameActive = false;
+        endRecord(GameRecord.DRAW);
 
         if (observerThread != null && observerThread.isAlive()) {
             observerThread.interrupt();
@@ -431,6 +500,75 @@ public class GameController {
         Main.PlayerColor winner = (humanPlayerColor == Main.PlayerColor.WHITE) ?
                 Main.PlayerColor.BLACK : Main.PlayerColor.WHITE;
 
+        endRecord(resultFor(winner));
         endGame(getPlayerName(humanPlayerColor) + " сдались. " + getPlayerName(winner) + " побеждают!");
     }
-}
\ No newline at end of file
+
+    /**
+     * Начинает запись новой партии, если задан файл записи.
+     */
+    private void beginRecord() {
+        if (recordWriter == null) {
+            return;
+        }
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", gameMode == Main.GameMode.NON_INTERACTIVE ? "Observer" : "Interactive");
+        tags.put("White", humanPlayerColor == Main.PlayerColor.WHITE ? "Human" : "Bot");
+        tags.put("Black", humanPlayerColor == Main.PlayerColor.BLACK ? "Human" : "Bot");
+        try {
+            recordWriter.beginGame(tags, board);
+        } catch (IOException e) {
+            reportRecordError(e);
+        }
+    }
+
+    /**
+     * Дописывает ход в запись партии. Вызывается до хода, пока доска в позиции перед ним:
+     * флаги взятия и превращения берутся из допустимого хода текущего полухода.
+     */
+    private void recordMove(Piece piece, Hex destination) {
+        if (recordWriter == null) {
+            return;
+        }
+
+        int from = HexGrid.indexOf(piece.getPosition());
+        int to = HexGrid.indexOf(destination);
+        int move = getTurnState().find(from, to);
+        if (move == PackedMove.NONE) {
+            move = PackedMove.of(from, to);
+        }
+
+        try {
+            recordWriter.writeMove(piece.getType(), move);
+        } catch (IOException e) {
+            reportRecordError(e);
+        }
+    }
+
+    /**
+     * Завершает запись партии результатом.
+     */
+    private void endRecord(String result) {
+        if (recordWriter == null) {
+            return;
+        }
+        try {
+            recordWriter.endGame(result);
+        } catch (IOException e) {
+            reportRecordError(e);
+        }
+    }
+
+    private static String resultFor(Main.PlayerColor winner) {
+        return winner == Main.PlayerColor.WHITE ? GameRecord.WHITE_WINS : GameRecord.BLACK_WINS;
+    }
+
+    /**
+     * Ошибка записи не прерывает игру: запись отключается до конца работы программы.
+     */
+    private void reportRecordError(IOException e) {
+        System.out.println("Ошибка записи партии: " + e.getMessage());
+        recordWriter = null;
+    }
+}
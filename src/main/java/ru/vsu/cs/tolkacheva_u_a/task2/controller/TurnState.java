@@ -0,0 +1,112 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.controller;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+
+/**
+ * Состояние позиции на текущем полуходе: допустимые ходы, сгруппированные по полю, откуда ходит фигура,
+ * шах и итог партии. Вычисляется один раз за полуход и не изменяется, поэтому подсветка ходов,
+ * проверка хода по клику и проверка конца партии читают готовые данные.
+ */
+public final class TurnState {
+
+    /**
+     * Итог партии в позиции.
+     */
+    public enum Status {
+        IN_PROGRESS,
+        CHECKMATE,
+        STALEMATE
+    }
+
+    private final PlayerColor currentPlayer;
+    private final boolean inCheck;
+    private final Status status;
+    private final int[] moves;
+    /** Ходы с поля cell занимают moves[cellStart[cell]] ... moves[cellStart[cell + 1] - 1]. */
+    private final int[] cellStart = new int[HexGrid.CELL_COUNT + 1];
+
+    /**
+     * Вычисляет состояние позиции стороны, чья очередь хода.
+     */
+    public TurnState(Position position) {
+        MoveList legal = new MoveList();
+        position.generateLegalMoves(legal);
+
+        currentPlayer = position.getCurrentPlayer();
+        inCheck = position.isKingInCheck(currentPlayer);
+        if (!legal.isEmpty()) {
+            status = Status.IN_PROGRESS;
+        } else {
+            status = inCheck ? Status.CHECKMATE : Status.STALEMATE;
+        }
+
+        // Сортировка подсчетом по полю, откуда делается ход
+        for (int i = 0; i < legal.size(); i++) {
+            cellStart[legal.getFrom(i) + 1]++;
+        }
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        moves = new int[legal.size()];
+        int[] next = cellStart.clone();
+        for (int i = 0; i < legal.size(); i++) {
+            moves[next[legal.getFrom(i)]++] = legal.get(i);
+        }
+    }
+
+    public PlayerColor getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * Проверяет, находится ли под шахом король стороны, чья очередь хода.
+     */
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isGameOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    /**
+     * Возвращает число допустимых ходов с поля from.
+     */
+    public int getMoveCount(int from) {
+        return cellStart[from + 1] - cellStart[from];
+    }
+
+    /**
+     * Возвращает i-й допустимый ход с поля from, упакованный в {@link PackedMove}.
+     */
+    public int getMove(int from, int i) {
+        return moves[cellStart[from] + i];
+    }
+
+    /**
+     * Возвращает допустимый ход с флагами или {@link PackedMove#NONE}, если хода нет.
+     */
+    public int find(int from, int to) {
+        if (from < 0 || to < 0) {
+            return PackedMove.NONE;
+        }
+        for (int i = cellStart[from]; i < cellStart[from + 1]; i++) {
+            if (PackedMove.to(moves[i]) == to) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    public boolean isLegal(int from, int to) {
+        return find(from, to) != PackedMove.NONE;
+    }
+}
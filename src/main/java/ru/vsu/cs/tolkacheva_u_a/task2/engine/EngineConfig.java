@@ -0,0 +1,162 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Настройки поискового движка бота.
+ * Задаются аргументами командной строки и передаются контроллеру бота.
+ */
+public class EngineConfig {
+    public static final int MAX_DEPTH = 64;
+    /** Время на ход, при котором поиск ограничен только глубиной. */
+    public static final long UNLIMITED_MOVE_TIME = Long.MAX_VALUE;
+    private static final int DEFAULT_MOVE_TIME_MILLIS = 500;
+    private static final int DEFAULT_HASH_SIZE_MB = 16;
+    private static final int MAX_THREADS = 256;
+
+    private int maxDepth;
+    private long moveTimeMillis;
+    private int hashSizeMb;
+    private int threads;
+    private Long seed;
+    private OpeningBook book;
+
+    /**
+     * Создает настройки по умолчанию: поиск ограничен только временем на ход.
+     */
+    public EngineConfig() {
+        this.maxDepth = MAX_DEPTH;
+        this.moveTimeMillis = DEFAULT_MOVE_TIME_MILLIS;
+        this.hashSizeMb = DEFAULT_HASH_SIZE_MB;
+        this.threads = 1;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Задает максимальную глубину перебора в полуходах.
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Глубина должна быть от 1 до " + MAX_DEPTH);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    /**
+     * Задает максимальное время на обдумывание одного хода в миллисекундах.
+     */
+    public void setMoveTimeMillis(long moveTimeMillis) {
+        if (moveTimeMillis < 1) {
+            throw new IllegalArgumentException("Время на ход должно быть положительным");
+        }
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    public int getHashSizeMb() {
+        return hashSizeMb;
+    }
+
+    /**
+     * Задает размер таблицы транспозиций в мегабайтах.
+     */
+    public void setHashSizeMb(int hashSizeMb) {
+        if (hashSizeMb < 1 || hashSizeMb > TranspositionTable.MAX_SIZE_MB) {
+            throw new IllegalArgumentException(
+                    "Размер таблицы транспозиций должен быть от 1 до " + TranspositionTable.MAX_SIZE_MB + " МБ");
+        }
+        this.hashSizeMb = hashSizeMb;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Задает число потоков поиска. Один поток - обычный последовательный поиск.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException("Число потоков должно быть от 1 до " + MAX_THREADS);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Возвращает зерно случайных чисел или null, если зерно не задано.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Задает зерно случайных чисел для выбора цвета и случайных ходов бота.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Возвращает книгу дебютов или null, если бот играет без книги.
+     */
+    public OpeningBook getBook() {
+        return book;
+    }
+
+    /**
+     * Задает книгу дебютов, ходы из которой бот делает без перебора; null - играть без книги.
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Создает генератор случайных чисел: с заданным зерном, если оно есть, иначе случайный.
+     */
+    public SplittableRandom createRandom() {
+        return seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+    }
+
+    /**
+     * Задает параметр по имени из командной строки: --depth, --movetime, --hash, --threads, --seed
+     * или --book (файл книги дебютов, загружается сразу).
+     * Возвращает false, если параметр не относится к настройкам бота.
+     * @throws IllegalArgumentException если значение параметра неверно
+     */
+    public boolean setOption(String option, String value) {
+        switch (option) {
+            case "--depth" -> setMaxDepth(Integer.parseInt(value));
+            case "--movetime" -> setMoveTimeMillis(Long.parseLong(value));
+            case "--hash" -> setHashSizeMb(Integer.parseInt(value));
+            case "--threads" -> setThreads(Integer.parseInt(value));
+            case "--seed" -> setSeed(Long.parseLong(value));
+            case "--book" -> {
+                try {
+                    setBook(new OpeningBook(Path.of(value)));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Не удалось загрузить книгу дебютов: " + e.getMessage(), e);
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "EngineConfig{depth=" + maxDepth + ", movetime=" +
+                (moveTimeMillis == UNLIMITED_MOVE_TIME ? "unlimited" : moveTimeMillis + "ms") + ", hash=" + hashSizeMb +
+                "MB, threads=" + threads + (seed != null ? ", seed=" + seed : "") +
+                (book != null ? ", book=" + book.getPositionCount() + " positions" : "") + "}";
+    }
+}
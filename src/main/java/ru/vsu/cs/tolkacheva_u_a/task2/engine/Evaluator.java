@@ -0,0 +1,201 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Zobrist;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import java.util.Arrays;
+
+/**
+ * Статическая оценка позиции в сотых долях пешки.
+ * Складывает материал по ценности фигур шахмат Глинского,
+ * пешечную структуру по вертикалям Глинского (сдвоенные, изолированные и проходные пешки)
+ * и подвижность - разницу числа ходов-кандидатов сторон.
+ *
+ * <p>Готовые оценки хранятся в кеше по ключу Зобриста позиции, оценки пешечной структуры -
+ * в отдельном кеше по ключу, составленному только из пешек. Кеши не синхронизированы,
+ * поэтому у каждого потока поиска свой оценщик.
+ */
+public class Evaluator {
+    /** Ценность фигур в порядке {@link PieceType}: пешка, ладья, конь, слон, ферзь, король. */
+    private static final int[] PIECE_VALUES = {100, 500, 300, 325, 900, 0};
+    private static final int MOBILITY_WEIGHT = 4;
+
+    private static final int DOUBLED_PAWN_PENALTY = 15;
+    private static final int ISOLATED_PAWN_PENALTY = 12;
+    /** Надбавка проходной пешке по числу шагов до горизонтали превращения. */
+    private static final int[] PASSED_PAWN_BONUS = {0, 90, 70, 50, 35, 25, 18, 12, 8, 5, 5};
+
+    private static final int EVAL_CACHE_SIZE_LOG2 = 16;
+    private static final int PAWN_CACHE_SIZE_LOG2 = 14;
+
+    /** Вертикаль поля (0 - a, 10 - l) и горизонталь Глинского (1-11), растущая к черным. */
+    private static final int[] FILE_OF = new int[HexGrid.CELL_COUNT];
+    private static final int[] RANK_OF = new int[HexGrid.CELL_COUNT];
+    /** Число шагов пешки до превращения: белые превращаются при r = -5, черные при r = 5. */
+    private static final int[][] STEPS_TO_PROMOTION = new int[2][HexGrid.CELL_COUNT];
+
+    static {
+        for (int file = 0; file < GlinskiNotation.FILE_COUNT; file++) {
+            for (int rank = 1; rank <= GlinskiNotation.RANK_COUNT; rank++) {
+                int cell = GlinskiNotation.cellIndex(file, rank);
+                if (cell >= 0) {
+                    FILE_OF[cell] = file;
+                    RANK_OF[cell] = rank;
+                }
+            }
+        }
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            int r = HexGrid.cellAt(cell).getR();
+            STEPS_TO_PROMOTION[PlayerColor.WHITE.ordinal()][cell] = r + HexGrid.RADIUS;
+            STEPS_TO_PROMOTION[PlayerColor.BLACK.ordinal()][cell] = HexGrid.RADIUS - r;
+        }
+    }
+
+    private final ScoreCache evalCache = new ScoreCache(EVAL_CACHE_SIZE_LOG2);
+    private final ScoreCache pawnCache = new ScoreCache(PAWN_CACHE_SIZE_LOG2);
+
+    private final int[][] pawns = new int[2][HexGrid.CELL_COUNT];
+    private final int[] pawnCounts = new int[2];
+    private final int[][] fileCounts = new int[2][GlinskiNotation.FILE_COUNT + 2];
+
+    /**
+     * Возвращает ценность фигуры указанного типа.
+     */
+    public static int pieceValue(PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Оценивает позицию с точки зрения игрока, который делает ход.
+     * Права двойного хода пешек в ключ Зобриста не входят, поэтому оценка из кеша
+     * может отличаться от вычисленной заново на подвижность этих пешек.
+     */
+    public int evaluate(Position position) {
+        long key = position.getZobristKey();
+        int cached = evalCache.probe(key);
+        if (cached != ScoreCache.MISS) {
+            return cached;
+        }
+
+        int score = 0;
+        long pawnKey = 0;
+        pawnCounts[0] = 0;
+        pawnCounts[1] = 0;
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            PieceType type = position.getPieceTypeAt(cell);
+            if (type == null) {
+                continue;
+            }
+            PlayerColor color = position.getPieceColorAt(cell);
+            int value = PIECE_VALUES[type.ordinal()];
+            score += color == PlayerColor.WHITE ? value : -value;
+            if (type == PieceType.PAWN) {
+                pawnKey ^= Zobrist.pieceKey(type, color, cell);
+                int side = color.ordinal();
+                pawns[side][pawnCounts[side]++] = cell;
+            }
+        }
+
+        score += pawnStructure(pawnKey);
+        score += MOBILITY_WEIGHT * (position.countPseudoLegalMoves(PlayerColor.WHITE)
+                - position.countPseudoLegalMoves(PlayerColor.BLACK));
+
+        score = position.getCurrentPlayer() == PlayerColor.WHITE ? score : -score;
+        evalCache.store(key, score);
+        return score;
+    }
+
+    /**
+     * Возвращает кеш оценок позиций.
+     */
+    public ScoreCache getEvalCache() {
+        return evalCache;
+    }
+
+    /**
+     * Возвращает кеш оценок пешечной структуры.
+     */
+    public ScoreCache getPawnCache() {
+        return pawnCache;
+    }
+
+    /**
+     * Возвращает оценку пешечной структуры с точки зрения белых из кеша или вычисляет ее
+     * по пешкам, собранным в {@link #evaluate}.
+     */
+    private int pawnStructure(long pawnKey) {
+        if (pawnKey == 0) {
+            return 0;
+        }
+        int cached = pawnCache.probe(pawnKey);
+        if (cached != ScoreCache.MISS) {
+            return cached;
+        }
+
+        int white = PlayerColor.WHITE.ordinal();
+        int black = PlayerColor.BLACK.ordinal();
+        countFiles(white);
+        countFiles(black);
+        int score = pawnTerms(white, black, 1) - pawnTerms(black, white, -1);
+        pawnCache.store(pawnKey, score);
+        return score;
+    }
+
+    /**
+     * Считает пешки стороны side по вертикалям. Вертикали сдвинуты на 1,
+     * чтобы у крайних вертикалей были пустые соседи.
+     */
+    private void countFiles(int side) {
+        int[] counts = fileCounts[side];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < pawnCounts[side]; i++) {
+            counts[FILE_OF[pawns[side][i]] + 1]++;
+        }
+    }
+
+    /**
+     * Оценивает пешки стороны side: штраф за сдвоенные и изолированные, надбавка за проходные.
+     * forward - направление движения пешек side по горизонталям Глинского.
+     */
+    private int pawnTerms(int side, int enemy, int forward) {
+        int[] own = fileCounts[side];
+        int score = 0;
+        for (int file = 1; file <= GlinskiNotation.FILE_COUNT; file++) {
+            if (own[file] > 1) {
+                score -= DOUBLED_PAWN_PENALTY * (own[file] - 1);
+            }
+            if (own[file] > 0 && own[file - 1] == 0 && own[file + 1] == 0) {
+                score -= ISOLATED_PAWN_PENALTY * own[file];
+            }
+        }
+
+        for (int i = 0; i < pawnCounts[side]; i++) {
+            int cell = pawns[side][i];
+            if (isPassed(cell, enemy, forward)) {
+                score += PASSED_PAWN_BONUS[STEPS_TO_PROMOTION[side][cell]];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Проверяет, что перед пешкой на своей вертикали и на соседних нет пешек противника,
+     * которые могут ее остановить или взять.
+     */
+    private boolean isPassed(int cell, int enemy, int forward) {
+        int file = FILE_OF[cell];
+        int rank = RANK_OF[cell];
+        for (int i = 0; i < pawnCounts[enemy]; i++) {
+            int other = pawns[enemy][i];
+            int fileDistance = Math.abs(FILE_OF[other] - file);
+            int ahead = (RANK_OF[other] - rank) * forward;
+            if (fileDistance == 0 && ahead > 0 || fileDistance == 1 && ahead >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
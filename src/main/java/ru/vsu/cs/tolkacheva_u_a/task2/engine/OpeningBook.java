@@ -0,0 +1,128 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Книга дебютов: ходы с весами для позиций, встречавшихся в записанных партиях.
+ *
+ * <p>Файл создается {@link OpeningBookBuilder}: заголовок и записи по {@value #ENTRY_SIZE} байт -
+ * ключ Зобриста позиции, ход без флагов и вес, отсортированные по ключу.
+ * Книга целиком загружается в массивы, поиск позиции - двоичный. Книга не изменяется
+ * после загрузки, поэтому одну книгу могут использовать несколько ботов одновременно.
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x474C424B;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int ENTRY_SIZE = 14;
+
+    private final long[] keys;
+    private final int[] moves;
+    private final int[] weights;
+    private final int positionCount;
+
+    /**
+     * Загружает книгу из файла.
+     * @throws IOException при ошибке чтения или если файл не является книгой дебютов
+     */
+    public OpeningBook(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+                throw new IOException("Неверный формат книги дебютов: " + file);
+            }
+            int count = data.getInt();
+            if (count < 0 || data.remaining() != (long) count * ENTRY_SIZE) {
+                throw new IOException("Книга дебютов повреждена: " + file);
+            }
+
+            keys = new long[count];
+            moves = new int[count];
+            weights = new int[count];
+            int positions = 0;
+            for (int i = 0; i < count; i++) {
+                keys[i] = data.getLong();
+                moves[i] = data.getChar();
+                weights[i] = data.getInt();
+                if (i > 0 && keys[i] < keys[i - 1] || weights[i] <= 0) {
+                    throw new IOException("Книга дебютов повреждена: " + file);
+                }
+                if (i == 0 || keys[i] != keys[i - 1]) {
+                    positions++;
+                }
+            }
+            positionCount = positions;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Книга дебютов обрезана: " + file);
+        }
+    }
+
+    /**
+     * Выбирает случайный ход из книги для позиции с ключом key с вероятностью,
+     * пропорциональной весу хода. Возвращает ход без флагов или {@link PackedMove#NONE},
+     * если позиции нет в книге. Ход нужно проверить по правилам: ключи разных позиций могут совпасть.
+     */
+    public int probe(long key, SplittableRandom random) {
+        int first = findPosition(key);
+        if (first < 0) {
+            return PackedMove.NONE;
+        }
+
+        int total = 0;
+        for (int i = first; i < keys.length && keys[i] == key; i++) {
+            total += weights[i];
+        }
+
+        int pick = random.nextInt(total);
+        int i = first;
+        while (pick >= weights[i]) {
+            pick -= weights[i];
+            i++;
+        }
+        return moves[i];
+    }
+
+    /**
+     * Возвращает номер первой записи позиции с ключом key или -1, если позиции нет в книге.
+     * Записи одной позиции идут подряд.
+     */
+    public int findPosition(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < keys.length && keys[low] == key ? low : -1;
+    }
+
+    public int getEntryCount() {
+        return keys.length;
+    }
+
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    public long getKey(int entry) {
+        return keys[entry];
+    }
+
+    public int getMove(int entry) {
+        return moves[entry];
+    }
+
+    public int getWeight(int entry) {
+        return weights[entry];
+    }
+}
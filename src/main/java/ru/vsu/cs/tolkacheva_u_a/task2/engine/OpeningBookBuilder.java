@@ -0,0 +1,190 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Сборка книги дебютов {@link OpeningBook} из сыгранных партий.
+ *
+ * <p>Для первых maxPlies полуходов каждой партии считается, сколько раз ход из позиции
+ * привел к победе, ничьей и поражению сделавшей его стороны. Счетчики хранятся
+ * в хеш-таблице с открытой адресацией на массивах, ключ - позиция и ход.
+ * Вес хода в книге - очки сделавшей его стороны, победа - 2, ничья - 1,
+ * поэтому проигрывавшие ходы в книгу не попадают.
+ */
+public class OpeningBookBuilder {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int MAX_WEIGHT = 1 << 20;
+
+    private final int maxPlies;
+    private final Board startBoard = new Board();
+    private final BitBoard replay = new BitBoard();
+    /** Ключи позиций перед каждым учитываемым полуходом партии. */
+    private final long[] plyKeys;
+
+    private long[] tableKeys = new long[INITIAL_CAPACITY];
+    private int[] tableMoves = new int[INITIAL_CAPACITY];
+    private int[] tableWins = new int[INITIAL_CAPACITY];
+    private int[] tableDraws = new int[INITIAL_CAPACITY];
+    private int[] tableLosses = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param maxPlies сколько первых полуходов каждой партии попадает в книгу
+     */
+    public OpeningBookBuilder(int maxPlies) {
+        if (maxPlies < 1) {
+            throw new IllegalArgumentException("Глубина книги должна быть положительной");
+        }
+        this.maxPlies = maxPlies;
+        this.plyKeys = new long[maxPlies];
+    }
+
+    /**
+     * Учитывает партию из начальной расстановки. Незавершенные партии не учитываются.
+     * Возвращает true, если партия учтена.
+     * @throws IllegalArgumentException если ход делает не фигура стороны, чья очередь хода;
+     *                                  счетчики книги при этом не меняются
+     */
+    public boolean addGame(MoveList moves, String result) {
+        if (result.equals(GameRecord.UNFINISHED)) {
+            return false;
+        }
+
+        // Сначала партия проверяется целиком, счетчики меняются только для допустимой партии
+        replay.copyFrom(startBoard);
+        int plies = Math.min(moves.size(), maxPlies);
+        for (int ply = 0; ply < plies; ply++) {
+            int move = moves.get(ply);
+            int from = PackedMove.from(move);
+            if (replay.getPieceTypeAt(from) == null || replay.getPieceColorAt(from) != replay.getCurrentPlayer()) {
+                throw new IllegalArgumentException("Недопустимый ход " + GlinskiNotation.moveName(move) +
+                        " на полуходе " + (ply + 1));
+            }
+            plyKeys[ply] = replay.getZobristKey();
+            replay.makeMove(from, PackedMove.to(move));
+        }
+
+        for (int ply = 0; ply < plies; ply++) {
+            int slot = slot(plyKeys[ply], PackedMove.squares(moves.get(ply)));
+            boolean whiteMoved = (ply % 2 == 0) == (startBoard.getCurrentPlayer() == PlayerColor.WHITE);
+            if (result.equals(GameRecord.DRAW)) {
+                tableDraws[slot]++;
+            } else if (result.equals(GameRecord.WHITE_WINS) == whiteMoved) {
+                tableWins[slot]++;
+            } else {
+                tableLosses[slot]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Записывает книгу в файл, оставляя ходы, сыгранные хотя бы в minGames партиях.
+     * Возвращает число записанных ходов.
+     */
+    public int write(Path file, int minGames) throws IOException {
+        int[] order = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < tableMoves.length; slot++) {
+            if (tableMoves[slot] != 0 && games(slot) >= minGames && weight(slot) > 0) {
+                order[count++] = slot;
+            }
+        }
+        order = Arrays.stream(order, 0, count).boxed()
+                .sorted((a, b) -> tableKeys[a] != tableKeys[b] ?
+                        Long.compare(tableKeys[a], tableKeys[b]) : Integer.compare(tableMoves[a], tableMoves[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(count);
+            for (int slot : order) {
+                out.writeLong(tableKeys[slot]);
+                out.writeChar(tableMoves[slot]);
+                out.writeInt(Math.min(weight(slot), MAX_WEIGHT));
+            }
+        }
+        return count;
+    }
+
+    private int games(int slot) {
+        return tableWins[slot] + tableDraws[slot] + tableLosses[slot];
+    }
+
+    private int weight(int slot) {
+        return 2 * tableWins[slot] + tableDraws[slot];
+    }
+
+    /**
+     * Возвращает ячейку таблицы для позиции и хода, занимая свободную при необходимости.
+     */
+    private int slot(long key, int move) {
+        if (2 * (size + 1) > tableMoves.length) {
+            grow();
+        }
+
+        int mask = tableMoves.length - 1;
+        int slot = index(key, move, mask);
+        while (tableMoves[slot] != 0) {
+            if (tableKeys[slot] == key && tableMoves[slot] == move) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        tableKeys[slot] = key;
+        tableMoves[slot] = move;
+        size++;
+        return slot;
+    }
+
+    private static int index(long key, int move, int mask) {
+        long hash = (key ^ move * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = tableKeys;
+        int[] oldMoves = tableMoves;
+        int[] oldWins = tableWins;
+        int[] oldDraws = tableDraws;
+        int[] oldLosses = tableLosses;
+
+        int capacity = oldMoves.length * 2;
+        tableKeys = new long[capacity];
+        tableMoves = new int[capacity];
+        tableWins = new int[capacity];
+        tableDraws = new int[capacity];
+        tableLosses = new int[capacity];
+
+        int mask = capacity - 1;
+        for (int old = 0; old < oldMoves.length; old++) {
+            if (oldMoves[old] == 0) {
+                continue;
+            }
+            int slot = index(oldKeys[old], oldMoves[old], mask);
+            while (tableMoves[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            tableKeys[slot] = oldKeys[old];
+            tableMoves[slot] = oldMoves[old];
+            tableWins[slot] = oldWins[old];
+            tableDraws[slot] = oldDraws[old];
+            tableLosses[slot] = oldLosses[old];
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Параллельный поиск по схеме Lazy SMP.
+ * Каждый поток перебирает один и тот же корень на своей копии позиции,
+ * обмен результатами идет только через общую таблицу транспозиций.
+ * Вспомогательные потоки начинают с разной глубины, чтобы реже повторять работу
+ * главного потока. Поиск завершается, когда главный поток исчерпал время или глубину.
+ */
+public class ParallelSearch {
+    private final TranspositionTable table;
+    private final AtomicBoolean stopSignal;
+    private final BitBoard[] positions;
+    private final SearchEngine[] engines;
+    private final ExecutorService helperPool;
+    private final EngineConfig config;
+
+    public ParallelSearch(EngineConfig config) {
+        this.config = config;
+        this.table = new TranspositionTable(config.getHashSizeMb());
+        this.stopSignal = new AtomicBoolean();
+
+        int threads = config.getThreads();
+        this.positions = new BitBoard[threads];
+        this.engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            positions[i] = new BitBoard();
+            engines[i] = new SearchEngine(positions[i], config, table, stopSignal);
+        }
+
+        if (threads > 1) {
+            helperPool = Executors.newFixedThreadPool(threads - 1, task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                thread.setName("Search-Helper-Thread");
+                return thread;
+            });
+        } else {
+            helperPool = null;
+        }
+    }
+
+    /**
+     * Копирует позицию доски во все потоки поиска.
+     * Вызывается в потоке, который владеет доской, до начала поиска.
+     */
+    public void setPosition(Board board) {
+        for (BitBoard position : positions) {
+            position.copyFrom(board);
+        }
+    }
+
+    /**
+     * Ищет лучший ход в позиции, заданной {@link #setPosition}.
+     * Возвращает результат потока, завершившего самую глубокую итерацию;
+     * при равной глубине предпочитается главный поток.
+     */
+    public SearchResult search(long remainingMillis) {
+        long startTime = System.nanoTime();
+        long budgetMillis = SearchEngine.budgetMillis(config, remainingMillis);
+        table.newSearch();
+        stopSignal.set(false);
+
+        List<Future<SearchResult>> helpers = new ArrayList<>(engines.length - 1);
+        for (int i = 1; i < engines.length; i++) {
+            SearchEngine engine = engines[i];
+            int firstDepth = 1 + i % 2;
+            helpers.add(helperPool.submit(() -> engine.search(startTime, budgetMillis, firstDepth)));
+        }
+
+        SearchResult best;
+        try {
+            best = engines[0].search(startTime, budgetMillis, 1);
+        } finally {
+            stopSignal.set(true);
+        }
+
+        long nodes = engines[0].getNodes();
+        for (int i = 0; i < helpers.size(); i++) {
+            SearchResult result = awaitHelper(helpers.get(i));
+            nodes += engines[i + 1].getNodes();
+            if (result.hasMove() && result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+
+        return best.withTotals(nodes, SearchEngine.elapsedMillis(startTime));
+    }
+
+    /**
+     * Прерывает текущий поиск. Поиск вернет лучший найденный к этому моменту ход.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Останавливает вспомогательные потоки. После вызова поиск недоступен.
+     */
+    public void shutdown() {
+        stop();
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    public int getThreadCount() {
+        return engines.length;
+    }
+
+    /**
+     * Возвращает оценщик позиций потока thread (0 - главный поток) со счетчиками его кешей.
+     */
+    public Evaluator getEvaluator(int thread) {
+        return engines[thread].getEvaluator();
+    }
+
+    private static SearchResult awaitHelper(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Поиск прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка во вспомогательном потоке поиска", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import java.util.Arrays;
+
+/**
+ * Кеш оценок фиксированного размера на массивах: 64-битный ключ и оценка.
+ * Ячейка выбирается по старшим битам ключа, новая запись всегда вытесняет старую,
+ * поэтому кеш может терять оценки, но не растет. Ключ 0 означает пустую ячейку.
+ *
+ * <p>Кеш не синхронизирован: у каждого потока поиска свой {@link Evaluator} и свои кеши.
+ */
+public class ScoreCache {
+    /** Результат {@link #probe}, если оценки нет в кеше. */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int shift;
+    private long hits;
+    private long misses;
+
+    /**
+     * Создает кеш на 2^sizeLog2 записей.
+     */
+    public ScoreCache(int sizeLog2) {
+        if (sizeLog2 < 1 || sizeLog2 > 30) {
+            throw new IllegalArgumentException("Размер кеша должен быть от 2^1 до 2^30 записей");
+        }
+        this.keys = new long[1 << sizeLog2];
+        this.scores = new int[1 << sizeLog2];
+        this.shift = Long.SIZE - sizeLog2;
+    }
+
+    /**
+     * Возвращает оценку с ключом key или {@link #MISS}, если ее нет.
+     */
+    public int probe(long key) {
+        int index = (int) (key >>> shift);
+        if (keys[index] == key && key != 0) {
+            hits++;
+            return scores[index];
+        }
+        misses++;
+        return MISS;
+    }
+
+    /**
+     * Сохраняет оценку с ключом key, вытесняя запись в той же ячейке.
+     */
+    public void store(long key, int score) {
+        int index = (int) (key >>> shift);
+        keys[index] = key;
+        scores[index] = score;
+    }
+
+    /**
+     * Очищает кеш и счетчики.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        hits = 0;
+        misses = 0;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Возвращает долю попаданий среди обращений или 0, если обращений не было.
+     */
+    public double getHitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("попаданий %d, промахов %d (%.1f%%)", hits, misses, 100 * getHitRate());
+    }
+}
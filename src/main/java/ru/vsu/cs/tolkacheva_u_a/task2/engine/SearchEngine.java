@@ -0,0 +1,450 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поиск лучшего хода перебором negamax с альфа-бета отсечением.
+ * Глубина наращивается итеративно, пока не исчерпан лимит глубины или времени.
+ * На нулевой глубине поиск продолжается по взятиям и превращениям (поиск покоя),
+ * проигрывающие взятия отсекаются по статической оценке размена {@link StaticExchange}.
+ * Результаты узлов сохраняются в {@link TranspositionTable} по ключу Зобриста.
+ * Ходы упорядочиваются: сначала ход главной линии прошлой итерации,
+ * затем лучший ход из таблицы, взятия по принципу MVV-LVA и тихие ходы.
+ * Позиция изменяется через makeMove/unmakeMove и после поиска остается прежней.
+ * Для параллельного поиска несколько движков на копиях позиции
+ * разделяют одну таблицу и общий флаг остановки (см. {@link ParallelSearch}).
+ */
+public class SearchEngine {
+    /** Оценка мата; мат в n полуходов оценивается как MATE_SCORE - n. */
+    public static final int MATE_SCORE = 100_000;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int MAX_PLY = EngineConfig.MAX_DEPTH;
+    /** Доля оставшегося времени партии, которую можно потратить на один ход. */
+    private static final int MOVES_TO_GO = 20;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    /** Бюджет, начиная с которого поиск считается неограниченным по времени (около 100 лет). */
+    private static final long MAX_BUDGET_MILLIS = 3_000_000_000_000L;
+
+    private static final int PV_MOVE_SCORE = 1 << 30;
+    private static final int HASH_MOVE_SCORE = 1 << 29;
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int SKIPPED_MOVE_SCORE = Integer.MIN_VALUE;
+
+    private final Position position;
+    private final EngineConfig config;
+    private final Evaluator evaluator;
+    private final StaticExchange staticExchange = new StaticExchange();
+    private final TranspositionTable table;
+    private final AtomicBoolean stopSignal;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private final int[] previousPv = new int[MAX_PLY + 1];
+    private int previousPvLength;
+    private boolean followPv;
+    private int rootScore;
+
+    private long nodes;
+    private long startTime;
+    private long budgetNanos;
+    private boolean unlimited;
+    private boolean stopped;
+
+    public SearchEngine(Position position, EngineConfig config) {
+        this(position, config, new TranspositionTable(config.getHashSizeMb()), new AtomicBoolean());
+    }
+
+    SearchEngine(Position position, EngineConfig config, TranspositionTable table, AtomicBoolean stopSignal) {
+        this.position = position;
+        this.config = config;
+        this.evaluator = new Evaluator();
+        this.table = table;
+        this.stopSignal = stopSignal;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+            moveScores[ply] = new int[0];
+        }
+    }
+
+    /**
+     * Ищет лучший ход для игрока, который делает ход в позиции.
+     * Время на ход ограничивается по {@link #budgetMillis}.
+     * Если время вышло посреди итерации, возвращается лучшая линия,
+     * найденная к этому моменту.
+     */
+    public SearchResult search(long remainingMillis) {
+        long startTime = System.nanoTime();
+        table.newSearch();
+        return search(startTime, budgetMillis(config, remainingMillis), 1);
+    }
+
+    /**
+     * Итеративное углубление начиная с глубины firstDepth, пока с момента startTime
+     * (по {@link System#nanoTime()}) не пройдет budgetMillis или не будет установлен общий флаг остановки.
+     * Бюджет от {@value #MAX_BUDGET_MILLIS} мс и больше время не ограничивает.
+     */
+    SearchResult search(long startTime, long budgetMillis, int firstDepth) {
+        this.startTime = startTime;
+        this.unlimited = budgetMillis >= MAX_BUDGET_MILLIS;
+        this.budgetNanos = unlimited ? 0 : budgetMillis * 1_000_000L;
+        nodes = 0;
+        stopped = false;
+        previousPvLength = 0;
+
+        SearchResult result = null;
+        int completedDepth = 0;
+        for (int depth = firstDepth; depth <= config.getMaxDepth(); depth++) {
+            followPv = true;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+
+            // Ход главной линии перебирается первым, поэтому частичный результат
+            // прерванной итерации не хуже результата предыдущей
+            if (stopped && pvLength[0] == 0) {
+                break;
+            }
+
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            if (stopped) {
+                score = rootScore;
+            } else {
+                completedDepth = depth;
+            }
+            result = new SearchResult(Arrays.copyOf(previousPv, previousPvLength), score, completedDepth, nodes, elapsedMillis(startTime));
+
+            if (stopped || previousPvLength == 0 || Math.abs(score) >= MATE_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+
+        if (result == null) {
+            result = firstMoveResult(startTime);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает число узлов, перебранных последним поиском.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Возвращает оценщик позиций этого поиска со счетчиками его кешей.
+     */
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Перебор negamax с отсечением по границам alpha и beta.
+     * Отсутствие ходов - поражение: по правилам игры и мат, и пат проигрывает тот, кто ходит.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = 0;
+
+        if (++nodes % TIME_CHECK_INTERVAL == 0 && (timeIsUp() || stopSignal.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        if (ply == MAX_PLY) {
+            return evaluator.evaluate(position);
+        }
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta);
+        }
+
+        long key = position.getZobristKey();
+        long entry = table.probe(key);
+        if (entry != 0 && ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+            int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT ||
+                    (bound == TranspositionTable.BOUND_LOWER && score >= beta) ||
+                    (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        position.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return -MATE_SCORE + ply;
+        }
+
+        scoreMoves(moves, ply, entry);
+        int originalAlpha = alpha;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            selectNextMove(moves, ply, i);
+            int move = moves.get(i);
+
+            position.makeMove(PackedMove.from(move), PackedMove.to(move));
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            position.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                updatePv(ply, move);
+                if (ply == 0) {
+                    rootScore = score;
+                }
+                if (alpha >= beta) {
+                    table.store(key, depth, TranspositionTable.BOUND_LOWER, toTableScore(beta, ply), move);
+                    return beta;
+                }
+            }
+        }
+
+        int bound = alpha > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, depth, bound, toTableScore(alpha, ply), bestMove);
+        return alpha;
+    }
+
+    /**
+     * Поиск покоя: перебирает только взятия и превращения, пока позиция не станет спокойной.
+     * Сторона может не бить и остаться при статической оценке. Взятия с отрицательной
+     * оценкой размена не перебираются. Под шахом перебираются все ходы без статической оценки.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = 0;
+
+        if (++nodes % TIME_CHECK_INTERVAL == 0 && (timeIsUp() || stopSignal.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        if (ply == MAX_PLY) {
+            return evaluator.evaluate(position);
+        }
+
+        boolean inCheck = position.isKingInCheck(position.getCurrentPlayer());
+        if (!inCheck) {
+            int standPat = evaluator.evaluate(position);
+            if (standPat >= beta) {
+                return beta;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        position.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return -MATE_SCORE + ply;
+        }
+
+        scoreTacticalMoves(moves, ply, inCheck);
+        for (int i = 0; i < moves.size(); i++) {
+            selectNextMove(moves, ply, i);
+            if (moveScores[ply][i] == SKIPPED_MOVE_SCORE) {
+                break;
+            }
+            int move = moves.get(i);
+
+            position.makeMove(PackedMove.from(move), PackedMove.to(move));
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            position.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) {
+                    return beta;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Выставляет приоритеты ходам поиска покоя: взятиям и превращениям - по оценке размена,
+     * остальным ходам и проигрывающим взятиям - {@link #SKIPPED_MOVE_SCORE}.
+     * Под шахом перебираются все ходы: сначала взятия, затем остальные.
+     */
+    private void scoreTacticalMoves(MoveList moves, int ply, boolean inCheck) {
+        if (moveScores[ply].length < moves.size()) {
+            moveScores[ply] = new int[moves.size() * 2];
+        }
+        int[] scores = moveScores[ply];
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                scores[i] = inCheck ? 0 : SKIPPED_MOVE_SCORE;
+                continue;
+            }
+
+            int gain = staticExchange.evaluate(position, move);
+            if (gain < 0 && !inCheck) {
+                scores[i] = SKIPPED_MOVE_SCORE;
+            } else {
+                scores[i] = CAPTURE_SCORE + gain;
+            }
+        }
+    }
+
+    /**
+     * Выставляет ходам приоритеты для упорядочивания.
+     */
+    private void scoreMoves(MoveList moves, int ply, long entry) {
+        if (moveScores[ply].length < moves.size()) {
+            moveScores[ply] = new int[moves.size() * 2];
+        }
+        int[] scores = moveScores[ply];
+
+        int pvMove = -1;
+        if (followPv) {
+            followPv = false;
+            if (ply < previousPvLength) {
+                for (int i = 0; i < moves.size(); i++) {
+                    if (PackedMove.squares(moves.get(i)) == PackedMove.squares(previousPv[ply])) {
+                        pvMove = i;
+                        followPv = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        int hashMove = entry != 0 ? TranspositionTable.getMove(entry) : PackedMove.NONE;
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (i == pvMove) {
+                scores[i] = PV_MOVE_SCORE;
+                continue;
+            }
+            int move = moves.get(i);
+            if (PackedMove.squares(move) == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+                continue;
+            }
+
+            if (PackedMove.isCapture(move)) {
+                PieceType victim = position.getPieceTypeAt(PackedMove.to(move));
+                PieceType attacker = position.getPieceTypeAt(PackedMove.from(move));
+                scores[i] = CAPTURE_SCORE + 10 * Evaluator.pieceValue(victim) - Evaluator.pieceValue(attacker);
+            } else {
+                scores[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Переставляет на позицию index ход с наибольшим приоритетом среди оставшихся.
+     */
+    private void selectNextMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        if (best != index) {
+            moves.swap(index, best);
+
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+    }
+
+    /**
+     * Записывает главную линию узла: ход и продолжение из дочернего узла.
+     */
+    private void updatePv(int ply, int move) {
+        int childLength = pvLength[ply + 1];
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    /**
+     * Возвращает первый ход по порядку сортировки, если не завершен даже перебор первого хода.
+     */
+    private SearchResult firstMoveResult(long startTime) {
+        MoveList moves = moveLists[0];
+        moves.clear();
+        position.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return new SearchResult(new int[0], -MATE_SCORE, 0, nodes, elapsedMillis(startTime));
+        }
+
+        followPv = false;
+        scoreMoves(moves, 0, table.probe(position.getZobristKey()));
+        selectNextMove(moves, 0, 0);
+        return new SearchResult(new int[]{moves.get(0)}, 0, 0, nodes, elapsedMillis(startTime));
+    }
+
+    /**
+     * Переводит оценку мата в расстояние от сохраняемого узла, а не от корня,
+     * чтобы запись оставалась верной при попадании в позицию на другой глубине.
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Сравнивает прошедшее время, а не моменты {@link System#nanoTime()}: сами значения
+     * nanoTime могут переполняться, а их разность - нет.
+     */
+    private boolean timeIsUp() {
+        return !unlimited && System.nanoTime() - startTime >= budgetNanos;
+    }
+
+    /**
+     * Вычисляет время на ход: не больше времени на ход из настроек и не больше
+     * 1/{@value #MOVES_TO_GO} оставшегося времени партии.
+     */
+    static long budgetMillis(EngineConfig config, long remainingMillis) {
+        return Math.max(1, Math.min(config.getMoveTimeMillis(), remainingMillis / MOVES_TO_GO));
+    }
+
+    static long elapsedMillis(long startTime) {
+        return (System.nanoTime() - startTime) / 1_000_000L;
+    }
+}
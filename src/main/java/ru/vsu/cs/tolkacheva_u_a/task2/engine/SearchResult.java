@@ -0,0 +1,93 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+
+/**
+ * Результат поиска: лучший ход, его оценка и главная линия (PV).
+ * Ходы главной линии хранятся упакованными в {@link PackedMove}.
+ */
+public class SearchResult {
+    private final int[] pv;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    SearchResult(int[] pv, int score, int depth, long nodes, long elapsedMillis) {
+        this.pv = pv;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Проверяет, найден ли ход. Хода нет, если у игрока нет допустимых ходов.
+     */
+    public boolean hasMove() {
+        return pv.length > 0;
+    }
+
+    public int getBestMove() {
+        return pv[0];
+    }
+
+    public int getBestFrom() {
+        return PackedMove.from(pv[0]);
+    }
+
+    public int getBestTo() {
+        return PackedMove.to(pv[0]);
+    }
+
+    public int getPvLength() {
+        return pv.length;
+    }
+
+    public int getPvMove(int ply) {
+        return pv[ply];
+    }
+
+    /**
+     * Возвращает оценку в сотых долях пешки с точки зрения игрока, который делает ход.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Возвращает глубину последней полностью завершенной итерации.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Возвращает копию результата с общим числом узлов и временем параллельного поиска.
+     */
+    SearchResult withTotals(long nodes, long elapsedMillis) {
+        return new SearchResult(pv, score, depth, nodes, elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("глубина ").append(depth)
+                .append(", оценка ").append(score)
+                .append(", узлов ").append(nodes)
+                .append(", время ").append(elapsedMillis).append(" мс, PV:");
+        for (int move : pv) {
+            sb.append(' ').append(GlinskiNotation.moveName(move));
+        }
+        return sb.toString();
+    }
+}
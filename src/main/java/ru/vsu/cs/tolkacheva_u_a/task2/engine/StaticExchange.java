@@ -0,0 +1,183 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.AttackDetector;
+
+/**
+ * Статическая оценка размена (SEE) на одном поле.
+ * Стороны по очереди бьют на поле самой дешевой атакующей фигурой,
+ * каждая сторона может остановиться, если продолжение ей невыгодно.
+ * Атакующие ищутся по лучам и таблицам прыжков {@link HexGrid} от поля размена наружу;
+ * побившая фигура убирается с доски, поэтому дальнобойные фигуры за ней вступают в размен.
+ * Связки не учитываются, король бьет последним и только незащищенную фигуру.
+ *
+ * <p>Позиция не изменяется. Объект хранит рабочие массивы и не синхронизирован.
+ */
+public class StaticExchange {
+    private static final int MAX_EXCHANGES = 2 * HexGrid.CELL_COUNT;
+    private static final int KING_ORDER = Integer.MAX_VALUE;
+    private static final int QUEEN_PROMOTION_GAIN =
+            Evaluator.pieceValue(PieceType.QUEEN) - Evaluator.pieceValue(PieceType.PAWN);
+
+    private final int[] gains = new int[MAX_EXCHANGES + 1];
+    private long removedLo;
+    private long removedHi;
+
+    /**
+     * Возвращает выигрыш материала в сотых долях пешки для стороны, делающей ход move,
+     * после лучшей для обеих сторон серии взятий на поле хода.
+     */
+    public int evaluate(Position position, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        PlayerColor side = position.getPieceColorAt(from);
+        PieceType victim = position.getPieceTypeAt(to);
+        PieceType onTarget = position.getPieceTypeAt(from);
+
+        removedLo = 0;
+        removedHi = 0;
+        remove(from);
+
+        gains[0] = victim != null ? Evaluator.pieceValue(victim) : 0;
+        if (PackedMove.isPromotion(move)) {
+            gains[0] += QUEEN_PROMOTION_GAIN;
+            onTarget = PieceType.QUEEN;
+        }
+
+        int depth = 0;
+        side = opponent(side);
+        while (depth < MAX_EXCHANGES) {
+            int attacker = leastValuableAttacker(position, to, side);
+            if (attacker < 0) {
+                break;
+            }
+            PieceType type = position.getPieceTypeAt(attacker);
+            remove(attacker);
+            if (type == PieceType.KING && leastValuableAttacker(position, to, opponent(side)) >= 0) {
+                break;
+            }
+
+            depth++;
+            gains[depth] = Evaluator.pieceValue(onTarget) - gains[depth - 1];
+            onTarget = type;
+            if (type == PieceType.PAWN && isPromotionCell(to, side)) {
+                gains[depth] += QUEEN_PROMOTION_GAIN;
+                onTarget = PieceType.QUEEN;
+            }
+            side = opponent(side);
+        }
+
+        // Каждая сторона выбирает между взятием и отказом от него, начиная с конца серии
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+
+    /**
+     * Возвращает поле самой дешевой фигуры цвета side, атакующей поле cell, или -1.
+     */
+    private int leastValuableAttacker(Position position, int cell, PlayerColor side) {
+        int best = -1;
+        int bestOrder = KING_ORDER;
+
+        for (int from : AttackDetector.pawnAttackers(cell, side)) {
+            if (isPiece(position, from, PieceType.PAWN, side)) {
+                return from;
+            }
+        }
+
+        for (int from : HexGrid.knightTargets(cell)) {
+            if (isPiece(position, from, PieceType.KNIGHT, side)) {
+                return from;
+            }
+        }
+
+        // Слон и ферзь по диагонали бьют только поля своего цвета
+        Hex.HexColor cellColor = HexGrid.cellAt(cell).getColor();
+        for (int[] ray : HexGrid.bishopRays(cell)) {
+            int from = firstPieceOnRay(position, ray);
+            if (from < 0 || position.getPieceColorAt(from) != side ||
+                    HexGrid.cellAt(from).getColor() != cellColor) {
+                continue;
+            }
+            PieceType type = position.getPieceTypeAt(from);
+            if ((type == PieceType.BISHOP || type == PieceType.QUEEN) && order(type) < bestOrder) {
+                best = from;
+                bestOrder = order(type);
+            }
+        }
+
+        for (int[] ray : HexGrid.rookRays(cell)) {
+            int from = firstPieceOnRay(position, ray);
+            if (from < 0 || position.getPieceColorAt(from) != side) {
+                continue;
+            }
+            PieceType type = position.getPieceTypeAt(from);
+            if ((type == PieceType.ROOK || type == PieceType.QUEEN) && order(type) < bestOrder) {
+                best = from;
+                bestOrder = order(type);
+            }
+        }
+
+        if (best >= 0) {
+            return best;
+        }
+        for (int from : HexGrid.kingTargets(cell)) {
+            if (isPiece(position, from, PieceType.KING, side)) {
+                return from;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Порядок вступления в размен: по ценности фигуры, король последним.
+     */
+    private static int order(PieceType type) {
+        return type == PieceType.KING ? KING_ORDER : Evaluator.pieceValue(type);
+    }
+
+    private boolean isPiece(Position position, int cell, PieceType type, PlayerColor color) {
+        return !isRemoved(cell) && position.getPieceTypeAt(cell) == type && position.getPieceColorAt(cell) == color;
+    }
+
+    /**
+     * Возвращает первое поле луча с фигурой, не ушедшей в размен, или -1.
+     */
+    private int firstPieceOnRay(Position position, int[] ray) {
+        for (int cell : ray) {
+            if (!isRemoved(cell) && position.getPieceTypeAt(cell) != null) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private void remove(int cell) {
+        if (cell < Long.SIZE) {
+            removedLo |= 1L << cell;
+        } else {
+            removedHi |= 1L << (cell - Long.SIZE);
+        }
+    }
+
+    private boolean isRemoved(int cell) {
+        return cell < Long.SIZE ? (removedLo >>> cell & 1) != 0 : (removedHi >>> (cell - Long.SIZE) & 1) != 0;
+    }
+
+    private static boolean isPromotionCell(int cell, PlayerColor side) {
+        int promotionRank = side == PlayerColor.WHITE ? -HexGrid.RADIUS : HexGrid.RADIUS;
+        return HexGrid.cellAt(cell).getR() == promotionRank;
+    }
+
+    private static PlayerColor opponent(PlayerColor color) {
+        return color == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import java.util.Arrays;
+
+/**
+ * Таблица транспозиций фиксированного размера на массиве long.
+ * Запись занимает два слова: ключ Зобриста позиции, сложенный по XOR с данными,
+ * и упакованные данные. Корзина состоит из двух записей: первая заменяется
+ * только более глубоким или устаревшим результатом либо почти такой же глубокой точной оценкой
+ * той же позиции, вторая перезаписывается всегда.
+ *
+ * <p>Таблица используется несколькими потоками поиска без блокировок.
+ * Если запись разорвана одновременной записью из другого потока,
+ * ключ не совпадет с XOR слов записи, и она будет пропущена.
+ *
+ * <p>Раскладка слова данных (от младших битов):
+ * 16 бит - поля хода ({@link PackedMove#squares}, {@link PackedMove#NONE} если хода нет),
+ * 32 бита - оценка, 8 бит - глубина, 2 бита - тип границы, 6 бит - поколение поиска.
+ */
+public class TranspositionTable {
+    /** Точная оценка. */
+    public static final int BOUND_EXACT = 1;
+    /** Нижняя граница: оценка не меньше сохраненной. */
+    public static final int BOUND_LOWER = 2;
+    /** Верхняя граница: оценка не больше сохраненной. */
+    public static final int BOUND_UPPER = 3;
+
+    /** Наибольший размер таблицы в мегабайтах, при котором массив помещается в int-индексы. */
+    public static final int MAX_SIZE_MB = 4096;
+
+    /** На сколько полуходов точная оценка позиции может быть мельче вытесняемой записи. */
+    private static final int EXACT_DEPTH_MARGIN = 2;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int LONGS_PER_BUCKET = 4;
+
+    private static final int MOVE_MASK = 0xFFFF;
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int GENERATION_SHIFT = 58;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * Создает таблицу размером sizeMb мегабайт.
+     * Число корзин округляется вниз до степени двойки.
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1 || sizeMb > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("Размер таблицы должен быть от 1 до " + MAX_SIZE_MB + " МБ");
+        }
+        long entries = (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY;
+        long buckets = Long.highestOneBit(entries / 2);
+        this.table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Очищает таблицу.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Начинает новый поиск: записи прошлых поисков становятся кандидатами на замену.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Ищет запись позиции с ключом key. Возвращает слово данных или 0, если записи нет.
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        long data = table[index + 1];
+        if (data != 0 && (table[index] ^ data) == key) {
+            return data;
+        }
+        data = table[index + 3];
+        if (data != 0 && (table[index + 2] ^ data) == key) {
+            return data;
+        }
+        return 0L;
+    }
+
+    /**
+     * Сохраняет результат поиска позиции. Ход упакован в {@link PackedMove},
+     * сохраняются только его поля; {@link PackedMove#NONE} - хода нет.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = bucketIndex(key);
+
+        long data = pack(depth, bound, score, move);
+        long current = table[index + 1];
+        boolean sameKey = current != 0 && (table[index] ^ current) == key;
+        if (sameKey && move == PackedMove.NONE) {
+            // Не теряем лучший ход, найденный прошлым поиском этой позиции
+            data |= current & MOVE_MASK;
+        }
+
+        // Более мелкий результат той же позиции уходит во вторую запись,
+        // точная оценка вытесняет границу, только если она мельче не больше чем на EXACT_DEPTH_MARGIN
+        if (current == 0 || getGeneration(current) != generation || depth >= getDepth(current) ||
+                sameKey && bound == BOUND_EXACT && depth + EXACT_DEPTH_MARGIN >= getDepth(current)) {
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        } else {
+            table[index + 2] = key ^ data;
+            table[index + 3] = data;
+        }
+    }
+
+    public static int getScore(long data) {
+        return (int) (data >>> SCORE_SHIFT);
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Возвращает поля лучшего хода записи ({@link PackedMove#squares})
+     * или {@link PackedMove#NONE}, если ход не сохранен.
+     */
+    public static int getMove(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    /**
+     * Возвращает размер таблицы в записях.
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    private long pack(int depth, int bound, int score, int move) {
+        return PackedMove.squares(move)
+                | (score & 0xFFFFFFFFL) << SCORE_SHIFT
+                | (long) (depth & 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) generation << GENERATION_SHIFT;
+    }
+
+    private static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+}
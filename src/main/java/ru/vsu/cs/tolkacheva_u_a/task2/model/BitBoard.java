@@ -0,0 +1,761 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.HexDirection;
+import java.util.Arrays;
+
+/**
+ * Битовое представление позиции для бота.
+ * Каждое множество полей занимает 128 бит (два long): биты 0-63 в младшем слове,
+ * поля 64-90 в старшем. Хранятся множества по типу фигуры и по цвету,
+ * маски атак коня, короля и пешек и лучи для 6 прямых и 6 диагональных направлений.
+ * Нумерация полей {@link HexGrid} монотонна вдоль любого луча, поэтому первая фигура
+ * на луче находится поиском младшего или старшего установленного бита.
+ *
+ * <p>Допустимые ходы строятся без пробного выполнения: по 12 лучам от короля один раз
+ * находятся шахующие и связанные фигуры, после чего ходы фигур ограничиваются маской
+ * защиты от шаха (взятие шахующей фигуры или перекрытие луча) и линией связки,
+ * а поле для короля проверяется на атаку без самого короля на доске.
+ */
+public final class BitBoard implements Position {
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+    private static final int PIECE_TYPES = 6;
+    private static final int DIRECTIONS = 12;
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final PlayerColor[] COLORS = {PlayerColor.WHITE, PlayerColor.BLACK};
+
+    private static final long[] KNIGHT_ATTACKS = new long[HexGrid.CELL_COUNT * 2];
+    private static final long[] KING_ATTACKS = new long[HexGrid.CELL_COUNT * 2];
+    /** Поля взятия пешки: [цвет][поле * 2 + слово]. */
+    private static final long[][] PAWN_ATTACKS = new long[2][HexGrid.CELL_COUNT * 2];
+    /** Поля, с которых пешка цвета [цвет] бьет поле: [цвет][поле * 2 + слово]. */
+    private static final long[][] PAWN_ATTACKERS = new long[2][HexGrid.CELL_COUNT * 2];
+    /** Шаг пешки вперед: [цвет][поле] -> поле или -1. */
+    private static final int[][] PAWN_FORWARD = new int[2][HexGrid.CELL_COUNT];
+    /** Лучи: [направление][поле * 2 + слово], направления 0-5 прямые, 6-11 диагональные. */
+    private static final long[][] RAYS = new long[DIRECTIONS][HexGrid.CELL_COUNT * 2];
+    /** Растет ли номер поля при движении по направлению. */
+    private static final boolean[] ASCENDING = new boolean[DIRECTIONS];
+    /** Поля того же цвета, что и данное: [поле * 2 + слово]. */
+    private static final long[] SAME_COLOR = new long[HexGrid.CELL_COUNT * 2];
+    private static final int[] START_RANK = {5, -5};
+    private static final int[] PROMOTION_RANK = {-5, 5};
+
+    static {
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Hex hex = HexGrid.cellAt(cell);
+
+            for (int target : HexGrid.knightTargets(cell)) {
+                setBit(KNIGHT_ATTACKS, cell, target);
+            }
+            for (int target : HexGrid.kingTargets(cell)) {
+                setBit(KING_ATTACKS, cell, target);
+            }
+
+            for (int side = WHITE; side <= BLACK; side++) {
+                boolean isWhite = side == WHITE;
+                Hex forward = HexDirection.getForwardDirection(isWhite);
+                PAWN_FORWARD[side][cell] = HexGrid.indexOf(hex.getQ() + forward.getQ(), hex.getR() + forward.getR());
+
+                for (Hex capture : HexDirection.getPawnCaptureDirections(isWhite)) {
+                    int target = HexGrid.indexOf(hex.getQ() + capture.getQ(), hex.getR() + capture.getR());
+                    if (target >= 0) {
+                        setBit(PAWN_ATTACKS[side], cell, target);
+                        setBit(PAWN_ATTACKERS[side], target, cell);
+                    }
+                }
+            }
+
+            for (int d = 0; d < DIRECTIONS; d++) {
+                int[] ray = d < 6 ? HexGrid.rookRays(cell)[d] : HexGrid.bishopRays(cell)[d - 6];
+                for (int target : ray) {
+                    setBit(RAYS[d], cell, target);
+                }
+            }
+
+            for (int other = 0; other < HexGrid.CELL_COUNT; other++) {
+                if (HexGrid.cellAt(other).getColor() == hex.getColor()) {
+                    setBit(SAME_COLOR, cell, other);
+                }
+            }
+        }
+
+        for (int d = 0; d < DIRECTIONS; d++) {
+            Hex direction = d < 6 ? HexGrid.ROOK_DIRECTIONS[d] : HexGrid.BISHOP_DIRECTIONS[d - 6];
+            ASCENDING[d] = direction.getQ() > 0 || (direction.getQ() == 0 && direction.getR() > 0);
+        }
+    }
+
+    private final long[] typeLo = new long[PIECE_TYPES];
+    private final long[] typeHi = new long[PIECE_TYPES];
+    private final long[] colorLo = new long[2];
+    private final long[] colorHi = new long[2];
+    private long unmovedLo;
+    private long unmovedHi;
+    /** Код фигуры на поле: 0 - пусто, иначе 1 + тип + 6 * цвет. */
+    private final byte[] squares = new byte[HexGrid.CELL_COUNT];
+    private final int[] kingCell = {-1, -1};
+    private int sideToMove;
+    private long zobristKey;
+
+    private int[] undoFrom = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoTo = new int[INITIAL_UNDO_CAPACITY];
+    private byte[] undoMoving = new byte[INITIAL_UNDO_CAPACITY];
+    private byte[] undoCaptured = new byte[INITIAL_UNDO_CAPACITY];
+    private boolean[] undoUnmoved = new boolean[INITIAL_UNDO_CAPACITY];
+    private boolean[] undoCapturedUnmoved = new boolean[INITIAL_UNDO_CAPACITY];
+    private long[] undoKey = new long[INITIAL_UNDO_CAPACITY];
+    private int undoSize;
+
+    private final MoveList mobilityList = new MoveList();
+    private final MoveList legalScratch = new MoveList();
+
+    /** Поля, ходы на которые защищают от шаха; без шаха - все поля. */
+    private long evasionLo;
+    private long evasionHi;
+    /** Связанные фигуры стороны, которая ходит. */
+    private long pinnedLo;
+    private long pinnedHi;
+    /** Линия связки для связанной фигуры: поля от короля до связывающей фигуры включительно. */
+    private final long[] pinLine = new long[HexGrid.CELL_COUNT * 2];
+
+    /**
+     * Создает пустую битовую доску, ход белых.
+     */
+    public BitBoard() {
+        this.sideToMove = WHITE;
+    }
+
+    /**
+     * Создает битовую доску с той же позицией, что и объектная доска.
+     */
+    public BitBoard(Board board) {
+        copyFrom(board);
+    }
+
+    /**
+     * Загружает позицию объектной доски, переиспользуя массивы.
+     */
+    public void copyFrom(Board board) {
+        Arrays.fill(typeLo, 0L);
+        Arrays.fill(typeHi, 0L);
+        Arrays.fill(colorLo, 0L);
+        Arrays.fill(colorHi, 0L);
+        Arrays.fill(squares, (byte) 0);
+        kingCell[WHITE] = -1;
+        kingCell[BLACK] = -1;
+        unmovedLo = 0L;
+        unmovedHi = 0L;
+        undoSize = 0;
+
+        for (PlayerColor color : COLORS) {
+            for (PieceType type : TYPES) {
+                for (int i = 0; i < board.getPieceCount(color, type); i++) {
+                    int cell = board.getPieceCell(color, type, i);
+                    put(cell, code(type.ordinal(), sideOf(color)));
+                    if (!board.getPieceAt(cell).hasMoved()) {
+                        if (cell < 64) {
+                            unmovedLo |= 1L << cell;
+                        } else {
+                            unmovedHi |= 1L << (cell - 64);
+                        }
+                    }
+                }
+            }
+        }
+
+        sideToMove = sideOf(board.getCurrentPlayer());
+        zobristKey = board.getZobristKey();
+    }
+
+    @Override
+    public PlayerColor getCurrentPlayer() {
+        return COLORS[sideToMove];
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public PieceType getPieceTypeAt(int cell) {
+        int code = squares[cell];
+        return code == 0 ? null : TYPES[typeOf(code)];
+    }
+
+    @Override
+    public PlayerColor getPieceColorAt(int cell) {
+        int code = squares[cell];
+        return code == 0 ? null : COLORS[sideOf(code)];
+    }
+
+    /**
+     * Возвращает множество полей с фигурами указанного типа и цвета (младшее слово).
+     */
+    public long getPiecesLo(PieceType type, PlayerColor color) {
+        return typeLo[type.ordinal()] & colorLo[sideOf(color)];
+    }
+
+    /**
+     * Возвращает множество полей с фигурами указанного типа и цвета (старшее слово).
+     */
+    public long getPiecesHi(PieceType type, PlayerColor color) {
+        return typeHi[type.ordinal()] & colorHi[sideOf(color)];
+    }
+
+    @Override
+    public boolean isSquareAttacked(int cell, PlayerColor byColor) {
+        return isAttacked(cell, sideOf(byColor));
+    }
+
+    @Override
+    public boolean isKingInCheck(PlayerColor color) {
+        int side = sideOf(color);
+        return kingCell[side] >= 0 && isAttacked(kingCell[side], side ^ 1);
+    }
+
+    @Override
+    public void generateLegalMoves(MoveList moves) {
+        generateLegalMoves(moves, false);
+    }
+
+    /**
+     * Проверяет, есть ли у текущего игрока хотя бы один допустимый ход.
+     * Генерация останавливается на первой фигуре, у которой есть ход.
+     */
+    public boolean hasLegalMoves() {
+        legalScratch.clear();
+        return generateLegalMoves(legalScratch, true);
+    }
+
+    /**
+     * Добавляет в список допустимые ходы текущего игрока в порядке полей, как ходы-кандидаты.
+     * Если firstOnly, останавливается после первой фигуры с ходами.
+     * Возвращает true, если добавлен хотя бы один ход.
+     */
+    private boolean generateLegalMoves(MoveList moves, boolean firstOnly) {
+        int side = sideToMove;
+        int king = kingCell[side];
+        if (king < 0) {
+            return false;
+        }
+
+        long ownLo = colorLo[side];
+        long ownHi = colorHi[side];
+        long occLo = colorLo[WHITE] | colorLo[BLACK];
+        long occHi = colorHi[WHITE] | colorHi[BLACK];
+        boolean doubleCheck = findChecksAndPins(king, side, occLo, occHi) > 1;
+
+        int start = moves.size();
+        long lo = ownLo;
+        long hi = ownHi;
+        while (lo != 0 || hi != 0) {
+            int from;
+            if (lo != 0) {
+                from = Long.numberOfTrailingZeros(lo);
+                lo &= lo - 1;
+            } else {
+                from = 64 + Long.numberOfTrailingZeros(hi);
+                hi &= hi - 1;
+            }
+
+            int i = from << 1;
+            if (from == king) {
+                addKingMoves(king, side, ownLo, ownHi, occLo, occHi, moves);
+            } else if (!doubleCheck) {
+                long maskLo = evasionLo;
+                long maskHi = evasionHi;
+                if (testBit(pinnedLo, pinnedHi, from)) {
+                    maskLo &= pinLine[i];
+                    maskHi &= pinLine[i | 1];
+                }
+                if ((maskLo | maskHi) == 0) {
+                    continue;
+                }
+
+                switch (TYPES[typeOf(squares[from])]) {
+                    case PAWN -> addPawnMoves(from, side, maskLo, maskHi, moves);
+                    case ROOK -> addSliderMoves(from, 0, 6, maskLo, maskHi, ownLo, ownHi, occLo, occHi, moves);
+                    case BISHOP -> addSliderMoves(from, 6, 12, SAME_COLOR[i] & maskLo, SAME_COLOR[i | 1] & maskHi,
+                            ownLo, ownHi, occLo, occHi, moves);
+                    case QUEEN -> {
+                        addSliderMoves(from, 0, 6, maskLo, maskHi, ownLo, ownHi, occLo, occHi, moves);
+                        addSliderMoves(from, 6, 12, SAME_COLOR[i] & maskLo, SAME_COLOR[i | 1] & maskHi,
+                                ownLo, ownHi, occLo, occHi, moves);
+                    }
+                    case KNIGHT -> addTargets(from, KNIGHT_ATTACKS[i] & ~ownLo & maskLo,
+                            KNIGHT_ATTACKS[i | 1] & ~ownHi & maskHi, occLo, occHi, moves);
+                    case KING -> {
+                    }
+                }
+            }
+
+            if (firstOnly && moves.size() > start) {
+                return true;
+            }
+        }
+        return moves.size() > start;
+    }
+
+    /**
+     * Находит шахующие фигуры противника и связанные фигуры стороны side с королем на поле king.
+     * Заполняет маску защиты от шаха, множество связанных фигур и их линии связки.
+     * Возвращает число шахующих фигур.
+     */
+    private int findChecksAndPins(int king, int side, long occLo, long occHi) {
+        int enemy = side ^ 1;
+        int k = king << 1;
+        long checkLo = (KNIGHT_ATTACKS[k] & typeLo[PieceType.KNIGHT.ordinal()] |
+                PAWN_ATTACKERS[enemy][k] & typeLo[PieceType.PAWN.ordinal()]) & colorLo[enemy];
+        long checkHi = (KNIGHT_ATTACKS[k | 1] & typeHi[PieceType.KNIGHT.ordinal()] |
+                PAWN_ATTACKERS[enemy][k | 1] & typeHi[PieceType.PAWN.ordinal()]) & colorHi[enemy];
+        int checks = Long.bitCount(checkLo) + Long.bitCount(checkHi);
+
+        pinnedLo = 0;
+        pinnedHi = 0;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int first = firstBlocker(king, d, occLo, occHi);
+            if (first < 0) {
+                continue;
+            }
+
+            if (sideOf(squares[first]) == enemy) {
+                if (attacksAlong(squares[first], enemy, d, king, first)) {
+                    checks++;
+                    checkLo |= RAYS[d][k] & ~RAYS[d][first << 1];
+                    checkHi |= RAYS[d][k | 1] & ~RAYS[d][(first << 1) | 1];
+                }
+                continue;
+            }
+
+            int second = firstBlocker(first, d, occLo, occHi);
+            if (second >= 0 && sideOf(squares[second]) == enemy && attacksAlong(squares[second], enemy, d, king, second)) {
+                int f = first << 1;
+                if (first < 64) {
+                    pinnedLo |= 1L << first;
+                } else {
+                    pinnedHi |= 1L << (first - 64);
+                }
+                pinLine[f] = RAYS[d][k] & ~RAYS[d][second << 1];
+                pinLine[f | 1] = RAYS[d][k | 1] & ~RAYS[d][(second << 1) | 1];
+            }
+        }
+
+        evasionLo = checks == 0 ? ~0L : checkLo;
+        evasionHi = checks == 0 ? ~0L : checkHi;
+        return checks;
+    }
+
+    /**
+     * Проверяет, бьет ли фигура с кодом code стороны side по направлению d поле king с поля cell.
+     * Слон и ферзь по диагонали бьют только поля своего цвета.
+     */
+    private static boolean attacksAlong(int code, int side, int d, int king, int cell) {
+        int queen = code(PieceType.QUEEN.ordinal(), side);
+        if (d < 6) {
+            return code == code(PieceType.ROOK.ordinal(), side) || code == queen;
+        }
+        return (code == code(PieceType.BISHOP.ordinal(), side) || code == queen) && testBit(SAME_COLOR, king, cell);
+    }
+
+    /**
+     * Добавляет ходы короля на поля, не атакованные противником.
+     * Атака проверяется без короля на доске, чтобы он не закрывал от себя луч шахующей фигуры.
+     */
+    private void addKingMoves(int king, int side, long ownLo, long ownHi, long occLo, long occHi, MoveList moves) {
+        long withoutKingLo = king < 64 ? occLo & ~(1L << king) : occLo;
+        long withoutKingHi = king < 64 ? occHi : occHi & ~(1L << (king - 64));
+
+        int i = king << 1;
+        long lo = KING_ATTACKS[i] & ~ownLo;
+        long hi = KING_ATTACKS[i | 1] & ~ownHi;
+        long safeLo = 0;
+        long safeHi = 0;
+        while (lo != 0) {
+            int to = Long.numberOfTrailingZeros(lo);
+            lo &= lo - 1;
+            if (!isAttacked(to, side ^ 1, withoutKingLo, withoutKingHi)) {
+                safeLo |= 1L << to;
+            }
+        }
+        while (hi != 0) {
+            int to = 64 + Long.numberOfTrailingZeros(hi);
+            hi &= hi - 1;
+            if (!isAttacked(to, side ^ 1, withoutKingLo, withoutKingHi)) {
+                safeHi |= 1L << (to - 64);
+            }
+        }
+        addTargets(king, safeLo, safeHi, occLo, occHi, moves);
+    }
+
+    @Override
+    public int countPseudoLegalMoves(PlayerColor color) {
+        mobilityList.clear();
+        generatePseudoLegalMoves(sideOf(color), mobilityList);
+        return mobilityList.size();
+    }
+
+    /**
+     * Добавляет в список ходы-кандидаты текущего игрока без проверки шаха своему королю.
+     */
+    public void generatePseudoLegalMoves(MoveList moves) {
+        generatePseudoLegalMoves(sideToMove, moves);
+    }
+
+    /**
+     * Добавляет в список ходы-кандидаты стороны side независимо от очереди хода.
+     */
+    private void generatePseudoLegalMoves(int side, MoveList moves) {
+        long ownLo = colorLo[side];
+        long ownHi = colorHi[side];
+        long occLo = colorLo[WHITE] | colorLo[BLACK];
+        long occHi = colorHi[WHITE] | colorHi[BLACK];
+
+        long lo = ownLo;
+        long hi = ownHi;
+        while (lo != 0 || hi != 0) {
+            int from;
+            if (lo != 0) {
+                from = Long.numberOfTrailingZeros(lo);
+                lo &= lo - 1;
+            } else {
+                from = 64 + Long.numberOfTrailingZeros(hi);
+                hi &= hi - 1;
+            }
+
+            int type = typeOf(squares[from]);
+            int i = from << 1;
+            switch (TYPES[type]) {
+                case PAWN -> addPawnMoves(from, side, ~0L, ~0L, moves);
+                case ROOK -> addSliderMoves(from, 0, 6, ~0L, ~0L, ownLo, ownHi, occLo, occHi, moves);
+                case BISHOP -> addSliderMoves(from, 6, 12, SAME_COLOR[i], SAME_COLOR[i | 1],
+                        ownLo, ownHi, occLo, occHi, moves);
+                case QUEEN -> {
+                    addSliderMoves(from, 0, 6, ~0L, ~0L, ownLo, ownHi, occLo, occHi, moves);
+                    addSliderMoves(from, 6, 12, SAME_COLOR[i], SAME_COLOR[i | 1],
+                            ownLo, ownHi, occLo, occHi, moves);
+                }
+                case KNIGHT -> addTargets(from, KNIGHT_ATTACKS[i] & ~ownLo, KNIGHT_ATTACKS[i | 1] & ~ownHi,
+                        occLo, occHi, moves);
+                case KING -> addTargets(from, KING_ATTACKS[i] & ~ownLo, KING_ATTACKS[i | 1] & ~ownHi,
+                        occLo, occHi, moves);
+            }
+        }
+    }
+
+    @Override
+    public void makeMove(int from, int to) {
+        if (undoSize == undoFrom.length) {
+            int capacity = undoSize * 2;
+            undoFrom = Arrays.copyOf(undoFrom, capacity);
+            undoTo = Arrays.copyOf(undoTo, capacity);
+            undoMoving = Arrays.copyOf(undoMoving, capacity);
+            undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+            undoUnmoved = Arrays.copyOf(undoUnmoved, capacity);
+            undoCapturedUnmoved = Arrays.copyOf(undoCapturedUnmoved, capacity);
+            undoKey = Arrays.copyOf(undoKey, capacity);
+        }
+
+        int moving = squares[from];
+        int captured = squares[to];
+
+        undoFrom[undoSize] = from;
+        undoTo[undoSize] = to;
+        undoMoving[undoSize] = (byte) moving;
+        undoCaptured[undoSize] = (byte) captured;
+        undoUnmoved[undoSize] = isUnmoved(from);
+        undoCapturedUnmoved[undoSize] = isUnmoved(to);
+        undoKey[undoSize] = zobristKey;
+        undoSize++;
+
+        if (captured != 0) {
+            remove(to, captured);
+        }
+        remove(from, moving);
+
+        int side = sideOf(moving);
+        int placed = moving;
+        if (typeOf(moving) == PieceType.PAWN.ordinal() &&
+                HexGrid.cellAt(to).getR() == PROMOTION_RANK[side]) {
+            placed = code(PieceType.QUEEN.ordinal(), side);
+        }
+        put(to, placed);
+
+        // Фигура сделала ход; превращенная пешка становится новой фигурой, как в Board
+        setUnmoved(from, false);
+        setUnmoved(to, placed != moving);
+
+        zobristKey ^= pieceKey(moving, from) ^ pieceKey(placed, to) ^ Zobrist.sideKey();
+        if (captured != 0) {
+            zobristKey ^= pieceKey(captured, to);
+        }
+        sideToMove ^= 1;
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("Нет ходов для отмены");
+        }
+
+        undoSize--;
+        int from = undoFrom[undoSize];
+        int to = undoTo[undoSize];
+        int moving = undoMoving[undoSize];
+        int captured = undoCaptured[undoSize];
+
+        remove(to, squares[to]);
+        put(from, moving);
+        setUnmoved(from, undoUnmoved[undoSize]);
+        setUnmoved(to, undoCapturedUnmoved[undoSize]);
+
+        if (captured != 0) {
+            put(to, captured);
+        }
+
+        zobristKey = undoKey[undoSize];
+        sideToMove ^= 1;
+    }
+
+    /**
+     * Проверяет, атакует ли сторона side поле cell.
+     */
+    private boolean isAttacked(int cell, int side) {
+        return isAttacked(cell, side, colorLo[WHITE] | colorLo[BLACK], colorHi[WHITE] | colorHi[BLACK]);
+    }
+
+    /**
+     * Проверяет, атакует ли сторона side поле cell, если лучи перекрывают только фигуры из множества occ.
+     */
+    private boolean isAttacked(int cell, int side, long occLo, long occHi) {
+        int i = cell << 1;
+        long byLo = colorLo[side];
+        long byHi = colorHi[side];
+
+        if ((KNIGHT_ATTACKS[i] & typeLo[PieceType.KNIGHT.ordinal()] & byLo) != 0 ||
+                (KNIGHT_ATTACKS[i | 1] & typeHi[PieceType.KNIGHT.ordinal()] & byHi) != 0) {
+            return true;
+        }
+        if ((KING_ATTACKS[i] & typeLo[PieceType.KING.ordinal()] & byLo) != 0 ||
+                (KING_ATTACKS[i | 1] & typeHi[PieceType.KING.ordinal()] & byHi) != 0) {
+            return true;
+        }
+        if ((PAWN_ATTACKERS[side][i] & typeLo[PieceType.PAWN.ordinal()] & byLo) != 0 ||
+                (PAWN_ATTACKERS[side][i | 1] & typeHi[PieceType.PAWN.ordinal()] & byHi) != 0) {
+            return true;
+        }
+
+        int rook = code(PieceType.ROOK.ordinal(), side);
+        int bishop = code(PieceType.BISHOP.ordinal(), side);
+        int queen = code(PieceType.QUEEN.ordinal(), side);
+
+        for (int d = 0; d < 6; d++) {
+            int blocker = firstBlocker(cell, d, occLo, occHi);
+            if (blocker >= 0 && (squares[blocker] == rook || squares[blocker] == queen)) {
+                return true;
+            }
+        }
+
+        // Слон и ферзь по диагонали бьют только поля своего цвета
+        for (int d = 6; d < DIRECTIONS; d++) {
+            int blocker = firstBlocker(cell, d, occLo, occHi);
+            if (blocker >= 0 && (squares[blocker] == bishop || squares[blocker] == queen) &&
+                    testBit(SAME_COLOR, cell, blocker)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Возвращает первое занятое поле на луче от cell по направлению d или -1.
+     */
+    private static int firstBlocker(int cell, int d, long occLo, long occHi) {
+        long lo = RAYS[d][cell << 1] & occLo;
+        long hi = RAYS[d][(cell << 1) | 1] & occHi;
+
+        if (ASCENDING[d]) {
+            if (lo != 0) {
+                return Long.numberOfTrailingZeros(lo);
+            }
+            return hi != 0 ? 64 + Long.numberOfTrailingZeros(hi) : -1;
+        }
+
+        if (hi != 0) {
+            return 127 - Long.numberOfLeadingZeros(hi);
+        }
+        return lo != 0 ? 63 - Long.numberOfLeadingZeros(lo) : -1;
+    }
+
+    /**
+     * Добавляет ходы дальнобойной фигуры по направлениям [firstDir, lastDir).
+     * Атакованные поля луча обрезаются за первой фигурой и пересекаются с маской цвета.
+     */
+    private void addSliderMoves(int from, int firstDir, int lastDir, long maskLo, long maskHi,
+                                long ownLo, long ownHi, long occLo, long occHi, MoveList moves) {
+        int i = from << 1;
+        for (int d = firstDir; d < lastDir; d++) {
+            long lo = RAYS[d][i];
+            long hi = RAYS[d][i | 1];
+
+            int blocker = firstBlocker(from, d, occLo, occHi);
+            if (blocker >= 0) {
+                lo &= ~RAYS[d][blocker << 1];
+                hi &= ~RAYS[d][(blocker << 1) | 1];
+            }
+
+            addTargets(from, lo & maskLo & ~ownLo, hi & maskHi & ~ownHi, occLo, occHi, moves);
+        }
+    }
+
+    /**
+     * Добавляет ходы пешки на поля из маски: шаг вперед, двойной шаг с начальной позиции и взятия.
+     */
+    private void addPawnMoves(int from, int side, long maskLo, long maskHi, MoveList moves) {
+        int forwardOne = PAWN_FORWARD[side][from];
+        if (forwardOne >= 0 && squares[forwardOne] == 0) {
+            if (testBit(maskLo, maskHi, forwardOne)) {
+                addPawnMove(from, forwardOne, side, 0, moves);
+            }
+
+            if (HexGrid.cellAt(from).getR() == START_RANK[side] && isUnmoved(from)) {
+                int forwardTwo = PAWN_FORWARD[side][forwardOne];
+                if (forwardTwo >= 0 && squares[forwardTwo] == 0 && testBit(maskLo, maskHi, forwardTwo)) {
+                    addPawnMove(from, forwardTwo, side, PackedMove.DOUBLE_PAWN_PUSH, moves);
+                }
+            }
+        }
+
+        int i = from << 1;
+        int enemy = side ^ 1;
+        long lo = PAWN_ATTACKS[side][i] & colorLo[enemy] & maskLo;
+        long hi = PAWN_ATTACKS[side][i | 1] & colorHi[enemy] & maskHi;
+        while (lo != 0) {
+            addPawnMove(from, Long.numberOfTrailingZeros(lo), side, PackedMove.CAPTURE, moves);
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            addPawnMove(from, 64 + Long.numberOfTrailingZeros(hi), side, PackedMove.CAPTURE, moves);
+            hi &= hi - 1;
+        }
+    }
+
+    /**
+     * Добавляет ход пешки, отмечая превращение в ферзя на последней горизонтали.
+     */
+    private static void addPawnMove(int from, int to, int side, int flags, MoveList moves) {
+        PieceType promotion = HexGrid.cellAt(to).getR() == PROMOTION_RANK[side] ? PieceType.QUEEN : null;
+        moves.add(PackedMove.of(from, to, promotion, flags));
+    }
+
+    /**
+     * Добавляет ходы на все поля из 128-битного множества.
+     * Поля, занятые фигурами (множество occ), отмечаются как взятия.
+     */
+    private static void addTargets(int from, long lo, long hi, long occLo, long occHi, MoveList moves) {
+        addTargets(from, lo & occLo, hi & occHi, PackedMove.CAPTURE, moves);
+        addTargets(from, lo & ~occLo, hi & ~occHi, 0, moves);
+    }
+
+    private static void addTargets(int from, long lo, long hi, int flags, MoveList moves) {
+        while (lo != 0) {
+            moves.add(PackedMove.of(from, Long.numberOfTrailingZeros(lo)) | flags);
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            moves.add(PackedMove.of(from, 64 + Long.numberOfTrailingZeros(hi)) | flags);
+            hi &= hi - 1;
+        }
+    }
+
+    private void put(int cell, int code) {
+        int type = typeOf(code);
+        int side = sideOf(code);
+        if (cell < 64) {
+            long bit = 1L << cell;
+            typeLo[type] |= bit;
+            colorLo[side] |= bit;
+        } else {
+            long bit = 1L << (cell - 64);
+            typeHi[type] |= bit;
+            colorHi[side] |= bit;
+        }
+        squares[cell] = (byte) code;
+        if (type == PieceType.KING.ordinal()) {
+            kingCell[side] = cell;
+        }
+    }
+
+    private void remove(int cell, int code) {
+        int type = typeOf(code);
+        int side = sideOf(code);
+        if (cell < 64) {
+            long bit = ~(1L << cell);
+            typeLo[type] &= bit;
+            colorLo[side] &= bit;
+        } else {
+            long bit = ~(1L << (cell - 64));
+            typeHi[type] &= bit;
+            colorHi[side] &= bit;
+        }
+        squares[cell] = 0;
+        if (type == PieceType.KING.ordinal() && kingCell[side] == cell) {
+            kingCell[side] = -1;
+        }
+    }
+
+    private boolean isUnmoved(int cell) {
+        return cell < 64 ? (unmovedLo & (1L << cell)) != 0 : (unmovedHi & (1L << (cell - 64))) != 0;
+    }
+
+    private void setUnmoved(int cell, boolean unmoved) {
+        if (cell < 64) {
+            unmovedLo = unmoved ? unmovedLo | (1L << cell) : unmovedLo & ~(1L << cell);
+        } else {
+            unmovedHi = unmoved ? unmovedHi | (1L << (cell - 64)) : unmovedHi & ~(1L << (cell - 64));
+        }
+    }
+
+    private static long pieceKey(int code, int cell) {
+        return Zobrist.pieceKey(TYPES[typeOf(code)], COLORS[sideOf(code)], cell);
+    }
+
+    private static int code(int type, int side) {
+        return 1 + type + PIECE_TYPES * side;
+    }
+
+    private static int typeOf(int code) {
+        return (code - 1) % PIECE_TYPES;
+    }
+
+    private static int sideOf(int code) {
+        return (code - 1) / PIECE_TYPES;
+    }
+
+    private static int sideOf(PlayerColor color) {
+        return color == PlayerColor.WHITE ? WHITE : BLACK;
+    }
+
+    private static void setBit(long[] masks, int cell, int target) {
+        if (target < 64) {
+            masks[cell << 1] |= 1L << target;
+        } else {
+            masks[(cell << 1) | 1] |= 1L << (target - 64);
+        }
+    }
+
+    private static boolean testBit(long lo, long hi, int cell) {
+        return cell < 64 ? (lo & (1L << cell)) != 0 : (hi & (1L << (cell - 64))) != 0;
+    }
+
+    private static boolean testBit(long[] masks, int cell, int target) {
+        return target < 64
+                ? (masks[cell << 1] & (1L << target)) != 0
+                : (masks[(cell << 1) | 1] & (1L << (target - 64))) != 0;
+    }
+}
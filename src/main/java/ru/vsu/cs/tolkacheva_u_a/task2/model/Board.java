@@ -1,67 +1,147 @@
 package ru.vsu.cs.tolkacheva_u_a.task2.model;
 
 import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Класс, представляющий игровую доску
+ * Класс, представляющий игровую доску.
+ * Фигуры хранятся в плотном массиве из 91 поля (mailbox), индекс поля
+ * берется из реестра полей {@link HexGrid}.
+ * Кроме того, для каждого цвета и типа фигур ведется список занятых полей,
+ * который обновляется при каждом ходе, взятии и превращении. По спискам фигуры
+ * перебираются без создания коллекций ({@link #getPieceCount}, {@link #getPieceCell}),
+ * а поле короля находится сразу ({@link #getKingCell}).
  */
-public class Board {
-    private static final int BOARD_RADIUS = 5;
+public class Board implements Position {
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+    private static final int PIECE_TYPES = PieceType.values().length;
+
     private final List<Piece> pieces;
+    private final Piece[] cells;
+    /** Поля фигур: [цвет * 6 + тип][номер в списке]. */
+    private final int[][] pieceCells;
+    private final int[] pieceCounts;
+    /** Номер поля в списке фигуры, которая на нем стоит. */
+    private final int[] listIndex;
     private PlayerColor currentPlayer;
+    private UndoEntry[] undoStack;
+    private int undoSize;
+    private MoveValidator rules;
+    private long zobristKey;
+    private int halfmoveClock;
+    private int fullmoveNumber;
 
     /**
      * Конструктор доски. Создает пустую доску и расставляет фигуры в начальную позицию.
      */
     public Board() {
-        this.pieces = new ArrayList<>();
-        this.currentPlayer = PlayerColor.WHITE;
+        this(PlayerColor.WHITE);
         setupInitialPosition();
     }
 
+    /**
+     * Создает пустую доску без фигур.
+     */
+    private Board(PlayerColor currentPlayer) {
+        this.pieces = new ArrayList<>();
+        this.cells = new Piece[HexGrid.CELL_COUNT];
+        this.pieceCells = new int[2 * PIECE_TYPES][HexGrid.CELL_COUNT];
+        this.pieceCounts = new int[2 * PIECE_TYPES];
+        this.listIndex = new int[HexGrid.CELL_COUNT];
+        this.currentPlayer = currentPlayer;
+        this.undoStack = new UndoEntry[INITIAL_UNDO_CAPACITY];
+        this.undoSize = 0;
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+    }
+
+    /**
+     * Создает доску с заданной расстановкой фигур, например прочитанной из записи позиции.
+     * Флаги первого хода берутся из самих фигур.
+     * @throws IllegalArgumentException если фигура стоит вне доски или две фигуры стоят на одном поле
+     */
+    public static Board of(List<Piece> pieces, PlayerColor currentPlayer, int halfmoveClock, int fullmoveNumber) {
+        Board board = new Board(currentPlayer);
+        for (Piece piece : pieces) {
+            int cell = piece.isCaptured() ? -1 : HexGrid.indexOf(piece.getPosition());
+            if (cell < 0 || board.cells[cell] != null) {
+                throw new IllegalArgumentException("Неверное поле фигуры: " + piece);
+            }
+            board.placePiece(piece);
+        }
+
+        board.halfmoveClock = halfmoveClock;
+        board.fullmoveNumber = fullmoveNumber;
+        board.zobristKey = Zobrist.keyOf(board);
+        return board;
+    }
+
     /**
      * Расставляет фигуры в начальную позицию согласно правилам шахмат Глинского.
      */
     private void setupInitialPosition() {
         pieces.clear();
+        Arrays.fill(cells, null);
+        Arrays.fill(pieceCounts, 0);
 
         // Белые фигуры (внизу доски)
         setupWhitePieces();
 
         // Черные фигуры (вверху доски)
         setupBlackPieces();
+
+        zobristKey = keyOfPlacedPieces();
+    }
+
+    /**
+     * Вычисляет ключ Зобриста по расставленным фигурам. В отличие от {@link Zobrist#keyOf}
+     * не передает доску наружу, поэтому годится для вызова из конструктора.
+     */
+    private long keyOfPlacedPieces() {
+        long key = 0L;
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Piece piece = cells[cell];
+            if (piece != null) {
+                key ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), cell);
+            }
+        }
+        if (currentPlayer == PlayerColor.BLACK) {
+            key ^= Zobrist.sideKey();
+        }
+        return key;
     }
 
     /**
      * Расстановка белых фигур согласно описанию.
      */
     private void setupWhitePieces() {
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 5, -5)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 5, -5)));
 
-        pieces.add(new Piece(PieceType.KING, PlayerColor.WHITE, new Hex(1, 4, -5)));
-        pieces.add(new Piece(PieceType.KNIGHT, PlayerColor.WHITE, new Hex(2, 3, -5)));
-        pieces.add(new Piece(PieceType.ROOK, PlayerColor.WHITE, new Hex(3, 2, -5)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(4, 1, -5)));
+        placePiece(new Piece(PieceType.KING, PlayerColor.WHITE, new Hex(1, 4, -5)));
+        placePiece(new Piece(PieceType.KNIGHT, PlayerColor.WHITE, new Hex(2, 3, -5)));
+        placePiece(new Piece(PieceType.ROOK, PlayerColor.WHITE, new Hex(3, 2, -5)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(4, 1, -5)));
 
-        pieces.add(new Piece(PieceType.QUEEN, PlayerColor.WHITE, new Hex(-1, 5, -4)));
-        pieces.add(new Piece(PieceType.KNIGHT, PlayerColor.WHITE, new Hex(-2, 5, -3)));
-        pieces.add(new Piece(PieceType.ROOK, PlayerColor.WHITE, new Hex(-3, 5, -2)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-4, 5, -1)));
+        placePiece(new Piece(PieceType.QUEEN, PlayerColor.WHITE, new Hex(-1, 5, -4)));
+        placePiece(new Piece(PieceType.KNIGHT, PlayerColor.WHITE, new Hex(-2, 5, -3)));
+        placePiece(new Piece(PieceType.ROOK, PlayerColor.WHITE, new Hex(-3, 5, -2)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-4, 5, -1)));
 
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 4, -4)));
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 3, -3)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 4, -4)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.WHITE, new Hex(0, 3, -3)));
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(0, 1, -1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(0, 1, -1)));
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(3, 1, -4)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(2, 1, -3)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(1, 1, -2)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(3, 1, -4)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(2, 1, -3)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(1, 1, -2)));
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-3, 4, -1)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-2, 3, -1)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-1, 2, -1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-3, 4, -1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-2, 3, -1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.WHITE, new Hex(-1, 2, -1)));
 
     }
 
@@ -69,35 +149,71 @@ public class Board {
      * Расстановка черных фигур (симметрично белым).
      */
     private void setupBlackPieces() {
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -5, 5)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -5, 5)));
+
+        placePiece(new Piece(PieceType.KING, PlayerColor.BLACK, new Hex(-1, -4, 5)));
+        placePiece(new Piece(PieceType.KNIGHT, PlayerColor.BLACK, new Hex(-2, -3, 5)));
+        placePiece(new Piece(PieceType.ROOK, PlayerColor.BLACK, new Hex(-3, -2, 5)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-4, -1, 5)));
+
+        placePiece(new Piece(PieceType.QUEEN, PlayerColor.BLACK, new Hex(1, -5, 4)));
+        placePiece(new Piece(PieceType.KNIGHT, PlayerColor.BLACK, new Hex(2, -5, 3)));
+        placePiece(new Piece(PieceType.ROOK, PlayerColor.BLACK, new Hex(3, -5, 2)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(4, -5, 1)));
 
-        pieces.add(new Piece(PieceType.KING, PlayerColor.BLACK, new Hex(-1, -4, 5)));
-        pieces.add(new Piece(PieceType.KNIGHT, PlayerColor.BLACK, new Hex(-2, -3, 5)));
-        pieces.add(new Piece(PieceType.ROOK, PlayerColor.BLACK, new Hex(-3, -2, 5)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-4, -1, 5)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -4, 4)));
+        placePiece(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -3, 3)));
 
-        pieces.add(new Piece(PieceType.QUEEN, PlayerColor.BLACK, new Hex(1, -5, 4)));
-        pieces.add(new Piece(PieceType.KNIGHT, PlayerColor.BLACK, new Hex(2, -5, 3)));
-        pieces.add(new Piece(PieceType.ROOK, PlayerColor.BLACK, new Hex(3, -5, 2)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(4, -5, 1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(0, -1, 1)));
 
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -4, 4)));
-        pieces.add(new Piece(PieceType.BISHOP, PlayerColor.BLACK, new Hex(0, -3, 3)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-3, -1, 4)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-2, -1, 3)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-1, -1, 2)));
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(0, -1, 1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(3, -4, 1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(2, -3, 1)));
+        placePiece(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(1, -2, 1)));
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-3, -1, 4)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-2, -1, 3)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(-1, -1, 2)));
+    }
 
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(3, -4, 1)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(2, -3, 1)));
-        pieces.add(new Piece(PieceType.PAWN, PlayerColor.BLACK, new Hex(1, -2, 1)));
+    /**
+     * Добавляет фигуру в список и ставит ее на поле.
+     */
+    private void placePiece(Piece piece) {
+        pieces.add(piece);
+        int index = HexGrid.indexOf(piece.getPosition());
+        if (!piece.isCaptured() && index >= 0) {
+            cells[index] = piece;
+            addToList(piece, index);
+        }
+    }
 
+    /**
+     * Возвращает число фигур указанного цвета и типа на доске.
+     */
+    public int getPieceCount(PlayerColor color, PieceType type) {
+        return pieceCounts[listOf(color, type)];
+    }
+
+    /**
+     * Возвращает поле index-й фигуры указанного цвета и типа, 0 <= index < {@link #getPieceCount}.
+     * Порядок фигур в списке меняется при взятиях и превращениях.
+     */
+    public int getPieceCell(PlayerColor color, PieceType type, int index) {
+        return pieceCells[listOf(color, type)][index];
+    }
+
+    /**
+     * Возвращает поле короля указанного цвета или -1, если короля нет на доске.
+     */
+    public int getKingCell(PlayerColor color) {
+        int list = listOf(color, PieceType.KING);
+        return pieceCounts[list] > 0 ? pieceCells[list][0] : -1;
     }
 
     /**
-     * Возвращает список всех фигур на доске.
+     * Возвращает новый список всех фигур на доске.
+     * Для перебора фигур без создания списка - {@link #getPieceCount} и {@link #getPieceCell}.
      */
     public List<Piece> getPieces() {
         List<Piece> validPieces = new ArrayList<>();
@@ -111,19 +227,18 @@ public class Board {
 
     /**
      * Находит фигуру на указанном поле.
-
      */
     public Piece getPieceAt(Hex hex) {
-        if (hex == null || !isValidHex(hex)) {
-            return null;
-        }
+        int index = HexGrid.indexOf(hex);
+        return index >= 0 ? getPieceAt(index) : null;
+    }
 
-        return pieces.stream()
-                .filter(piece -> !piece.isCaptured())
-                .filter(piece -> piece.getPosition() != null)
-                .filter(piece -> piece.getPosition().equals(hex))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Находит фигуру на поле с указанным индексом.
+     */
+    public Piece getPieceAt(int index) {
+        Piece piece = cells[index];
+        return piece != null && !piece.isCaptured() ? piece : null;
     }
 
     /**
@@ -133,25 +248,18 @@ public class Board {
         return getPieceAt(hex) == null;
     }
 
+    /**
+     * Проверяет, является ли пустым поле с указанным индексом.
+     */
+    public boolean isEmpty(int index) {
+        return getPieceAt(index) == null;
+    }
+
     /**
      * Проверяет, находится ли поле в пределах игровой доски.
      */
     public boolean isValidHex(Hex hex) {
-        if (hex == null) return false;
-
-        int q = hex.getQ();
-        int r = hex.getR();
-        int s = hex.getS();
-
-        // Проверка: q + r + s = 0
-        if (q + r + s != 0) {
-            return false;
-        }
-
-        // Проверка в пределах радиуса
-        return Math.abs(q) <= BOARD_RADIUS &&
-                Math.abs(r) <= BOARD_RADIUS &&
-                Math.abs(s) <= BOARD_RADIUS;
+        return HexGrid.indexOf(hex) >= 0;
     }
 
     /**
@@ -163,39 +271,292 @@ public class Board {
         }
 
         // Проверяем, что поле существует в пределах доски
-        if (!isValidHex(destination)) {
+        int to = HexGrid.indexOf(destination);
+        if (to < 0) {
             return false;
         }
 
-        Piece targetPiece = getPieceAt(destination);
+        applyMove(piece, locate(piece), to);
+        return true;
+    }
+
+    /**
+     * Выполняет ход с возможностью отмены через {@link #unmakeMove(Move)}.
+     * Взятая фигура, превращение пешки, флаг первого хода и очередь хода
+     * сохраняются в стеке отмены, новая доска не создается.
+     */
+    public void makeMove(Move move) {
+        Piece piece = move.getPiece();
+        int from = locate(piece);
+        int to = HexGrid.indexOf(move.getDestination());
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("Ход не соответствует позиции на доске: " + move);
+        }
+
+        makeMove(from, to);
+    }
 
-        if (targetPiece != null && targetPiece.getColor() != piece.getColor()) {
-            targetPiece.capture();
+    /**
+     * Выполняет ход фигурой с поля from на поле to с возможностью отмены.
+     */
+    @Override
+    public void makeMove(int from, int to) {
+        Piece piece = getPieceAt(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("На поле " + HexGrid.cellAt(from) + " нет фигуры");
         }
 
-        piece.setPosition(destination);
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+        }
+        UndoEntry entry = undoStack[undoSize];
+        if (entry == null) {
+            entry = new UndoEntry();
+            undoStack[undoSize] = entry;
+        }
+        undoSize++;
+
+        entry.piece = piece;
+        entry.from = from;
+        entry.to = to;
+        entry.hadMoved = piece.hasMoved();
+        entry.captured = getPieceAt(to);
+        entry.capturedIndex = cells[to] != null ? listIndex[to] : -1;
+        entry.pawnIndex = listIndex[from];
+        entry.player = currentPlayer;
+        entry.zobristKey = zobristKey;
+        entry.halfmoveClock = halfmoveClock;
+        entry.fullmoveNumber = fullmoveNumber;
+        entry.promoted = applyMove(piece, from, to);
+    }
 
-        checkPawnPromotion(piece, destination);
+    /**
+     * Отменяет указанный ход, который должен быть последним выполненным через makeMove.
+     */
+    public void unmakeMove(Move move) {
+        if (undoSize == 0 || undoStack[undoSize - 1].piece != move.getPiece()) {
+            throw new IllegalStateException("Ход не является последним выполненным: " + move);
+        }
+        unmakeMove();
+    }
 
+    /**
+     * Отменяет последний ход, выполненный через makeMove.
+     */
+    @Override
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("Нет ходов для отмены");
+        }
+
+        UndoEntry entry = undoStack[--undoSize];
+        Piece piece = entry.piece;
+
+        // Списки фигур восстанавливаются в обратном порядке, чтобы порядок в них не менялся
+        if (entry.promoted != null) {
+            pieces.set(pieces.indexOf(entry.promoted), piece);
+            removeFromList(entry.promoted, entry.to);
+            insertIntoList(piece, entry.to, entry.pawnIndex);
+        }
+        moveInList(piece, entry.to, entry.from);
+
+        cells[entry.from] = piece;
+        piece.restore(HexGrid.cellAt(entry.from), entry.hadMoved);
+
+        cells[entry.to] = entry.captured;
+        if (entry.captured != null) {
+            entry.captured.restore(HexGrid.cellAt(entry.to), entry.captured.hasMoved());
+            insertIntoList(entry.captured, entry.to, entry.capturedIndex);
+        }
+
+        currentPlayer = entry.player;
+        zobristKey = entry.zobristKey;
+        halfmoveClock = entry.halfmoveClock;
+        fullmoveNumber = entry.fullmoveNumber;
+
+        entry.piece = null;
+        entry.captured = null;
+        entry.promoted = null;
+    }
+
+    /**
+     * Переносит фигуру, выполняет взятие и превращение, передает ход.
+     * Возвращает ферзя, в которого превратилась пешка, или null.
+     */
+    private Piece applyMove(Piece piece, int from, int to) {
+        // Фигура на целевом поле могла быть уже помечена взятой контроллером,
+        // но ее ключ все равно нужно убрать из ключа позиции
+        Piece occupant = cells[to];
+        boolean capture = occupant != null && occupant != piece;
+        if (capture) {
+            removeFromList(occupant, to);
+            zobristKey ^= Zobrist.pieceKey(occupant.getType(), occupant.getColor(), to);
+            if (!occupant.isCaptured() && occupant.getColor() != piece.getColor()) {
+                occupant.capture();
+            }
+        }
+
+        if (from >= 0) {
+            cells[from] = null;
+            moveInList(piece, from, to);
+            zobristKey ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), from);
+        } else {
+            addToList(piece, to);
+        }
+        cells[to] = piece;
+        zobristKey ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), to);
+        piece.setPosition(HexGrid.cellAt(to));
+
+        Piece promoted = checkPawnPromotion(piece, HexGrid.cellAt(to));
+
+        halfmoveClock = capture || piece.getType() == PieceType.PAWN ? 0 : halfmoveClock + 1;
+        if (currentPlayer == PlayerColor.BLACK) {
+            fullmoveNumber++;
+        }
         switchPlayer();
 
-        return true;
+        return promoted;
+    }
+
+    /**
+     * Находит индекс поля, на котором стоит фигура.
+     * Позиция фигуры может быть изменена представлением раньше доски,
+     * поэтому при несовпадении выполняется поиск по массиву.
+     */
+    private int locate(Piece piece) {
+        int index = HexGrid.indexOf(piece.getPosition());
+        if (index >= 0 && cells[index] == piece) {
+            return index;
+        }
+
+        for (int i = 0; i < HexGrid.CELL_COUNT; i++) {
+            if (cells[i] == piece) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
      * Проверяет возможность превращения пешки при достижении последней горизонтали.
+     * Возвращает нового ферзя или null, если превращения не было.
      */
-    private void checkPawnPromotion(Piece piece, Hex position) {
+    private Piece checkPawnPromotion(Piece piece, Hex position) {
         if (piece.getType() == PieceType.PAWN) {
             int promotionRank = (piece.getColor() == PlayerColor.WHITE) ? -5 : 5;
 
             if (position.getR() == promotionRank) {
                 int index = pieces.indexOf(piece);
                 if (index != -1) {
-                    pieces.set(index, new Piece(PieceType.QUEEN, piece.getColor(), position));
+                    Piece queen = new Piece(PieceType.QUEEN, piece.getColor(), position);
+                    int cell = HexGrid.indexOf(position);
+                    pieces.set(index, queen);
+                    cells[cell] = queen;
+                    removeFromList(piece, cell);
+                    addToList(queen, cell);
+                    zobristKey ^= Zobrist.pieceKey(PieceType.PAWN, piece.getColor(), cell)
+                            ^ Zobrist.pieceKey(PieceType.QUEEN, piece.getColor(), cell);
+                    return queen;
                 }
             }
         }
+        return null;
+    }
+
+    private static int listOf(PlayerColor color, PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    /**
+     * Добавляет поле cell в конец списка фигуры piece.
+     */
+    private void addToList(Piece piece, int cell) {
+        int list = listOf(piece.getColor(), piece.getType());
+        insertIntoList(piece, cell, pieceCounts[list]);
+    }
+
+    /**
+     * Ставит поле cell на место index в списке фигуры piece, переставляя прежнее поле с этого места в конец.
+     * Обращает {@link #removeFromList}, если index - место, с которого поле было удалено.
+     */
+    private void insertIntoList(Piece piece, int cell, int index) {
+        int list = listOf(piece.getColor(), piece.getType());
+        int[] listCells = pieceCells[list];
+        int last = pieceCounts[list]++;
+        if (index != last) {
+            listCells[last] = listCells[index];
+            listIndex[listCells[last]] = last;
+        }
+        listCells[index] = cell;
+        listIndex[cell] = index;
+    }
+
+    /**
+     * Удаляет поле cell из списка фигуры piece, ставя на его место последнее поле списка.
+     */
+    private void removeFromList(Piece piece, int cell) {
+        int list = listOf(piece.getColor(), piece.getType());
+        int[] listCells = pieceCells[list];
+        int index = listIndex[cell];
+        int last = --pieceCounts[list];
+        listCells[index] = listCells[last];
+        listIndex[listCells[index]] = index;
+    }
+
+    /**
+     * Переносит фигуру piece с поля from на поле to в ее списке, не меняя порядок списка.
+     */
+    private void moveInList(Piece piece, int from, int to) {
+        int index = listIndex[from];
+        pieceCells[listOf(piece.getColor(), piece.getType())][index] = to;
+        listIndex[to] = index;
+    }
+
+    /**
+     * Возвращает валидатор правил, работающий с этой доской.
+     */
+    private MoveValidator rules() {
+        if (rules == null) {
+            rules = new MoveValidator(this);
+        }
+        return rules;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public PieceType getPieceTypeAt(int cell) {
+        Piece piece = getPieceAt(cell);
+        return piece != null ? piece.getType() : null;
+    }
+
+    @Override
+    public PlayerColor getPieceColorAt(int cell) {
+        Piece piece = getPieceAt(cell);
+        return piece != null ? piece.getColor() : null;
+    }
+
+    @Override
+    public boolean isSquareAttacked(int cell, PlayerColor byColor) {
+        return rules().getAttackDetector().isAttacked(cell, byColor);
+    }
+
+    @Override
+    public boolean isKingInCheck(PlayerColor color) {
+        return rules().isKingInCheck(color);
+    }
+
+    @Override
+    public void generateLegalMoves(MoveList moves) {
+        rules().getMoveGenerator().generateLegalMoves(currentPlayer, moves);
+    }
+
+    @Override
+    public int countPseudoLegalMoves(PlayerColor color) {
+        return rules().getMoveGenerator().countCandidates(color);
     }
 
     /**
@@ -203,21 +564,36 @@ public class Board {
      */
     private void switchPlayer() {
         currentPlayer = (currentPlayer == PlayerColor.WHITE) ? PlayerColor.BLACK : PlayerColor.WHITE;
+        zobristKey ^= Zobrist.sideKey();
     }
 
     /**
      * Возвращает текущего игрока.
      */
+    @Override
     public PlayerColor getCurrentPlayer() {
         return currentPlayer;
     }
 
+    /**
+     * Возвращает число полуходов после последнего взятия или хода пешкой.
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Возвращает номер хода: начинается с 1 и растет после каждого хода черных.
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
     /**
      * Создает глубокую копию доски для проверок ходов.
      */
     public Board copy() {
-        Board copy = new Board();
-        copy.pieces.clear();
+        Board copy = new Board(this.currentPlayer);
 
         for (Piece piece : this.pieces) {
             // Создаем копию фигуры
@@ -228,12 +604,31 @@ public class Board {
             if (piece.isCaptured()) {
                 pieceCopy.capture();
             }
-            copy.pieces.add(pieceCopy);
+            copy.placePiece(pieceCopy);
         }
 
-        copy.currentPlayer = this.currentPlayer;
-
+        copy.zobristKey = this.zobristKey;
+        copy.halfmoveClock = this.halfmoveClock;
+        copy.fullmoveNumber = this.fullmoveNumber;
         return copy;
     }
 
-}
\ No newline at end of file
+    /**
+     * Запись стека отмены: все, что нужно для восстановления позиции после makeMove.
+     * Записи переиспользуются, поэтому ход и его отмена не создают объектов.
+     */
+    private static final class UndoEntry {
+        private Piece piece;
+        private int from;
+        private int to;
+        private boolean hadMoved;
+        private Piece captured;
+        private int capturedIndex;
+        private int pawnIndex;
+        private Piece promoted;
+        private PlayerColor player;
+        private long zobristKey;
+        private int halfmoveClock;
+        private int fullmoveNumber;
+    }
+}
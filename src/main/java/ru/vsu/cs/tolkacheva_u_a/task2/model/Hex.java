@@ -1,16 +1,16 @@
 package ru.vsu.cs.tolkacheva_u_a.task2.model;
 
-import java.util.Objects;
-
 /**
  * Класс, представляющий шестиугольное поле на доске.
  * Использует систему осевых координат (q, r, s) для представления положения.
  */
 public class Hex {
+    private static final HexColor[] COLORS = HexColor.values();
+
     private final int q;
     private final int r;
     private final int s;
-    private HexColor color;
+    private final HexColor color;
 
     /**
      * Конструктор шестиугольного поля.
@@ -30,7 +30,7 @@ public class Hex {
      */
     private HexColor calculateColor() {
         int colorIndex = Math.floorMod(q + r, 3);
-        return HexColor.values()[colorIndex];
+        return COLORS[colorIndex];
     }
 
     public int getQ() {
@@ -61,9 +61,11 @@ public class Hex {
 
     /**
      * Добавляет вектор направления к текущему полю.
+     * Для полей доски возвращает канонический экземпляр из {@link HexGrid}.
      */
     public Hex add(Hex direction) {
-        return new Hex(q + direction.q, r + direction.r, s + direction.s);
+        Hex canonical = HexGrid.get(q + direction.q, r + direction.r);
+        return canonical != null ? canonical : new Hex(q + direction.q, r + direction.r, s + direction.s);
     }
 
     @Override
@@ -76,7 +78,8 @@ public class Hex {
 
     @Override
     public int hashCode() {
-        return Objects.hash(q, r, s);
+        // s однозначно определяется по q и r, а |r| < 31 для любых полей доски
+        return 31 * q + r;
     }
 
     @Override
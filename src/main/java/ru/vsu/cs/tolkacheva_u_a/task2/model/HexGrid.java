@@ -0,0 +1,237 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import java.util.Arrays;
+
+/**
+ * Реестр полей доски Глинского.
+ * Хранит ровно один канонический экземпляр {@link Hex} для каждого из 91 поля,
+ * плотный целочисленный номер поля и заранее построенные таблицы соседей,
+ * ходов коня, диагоналей слона и полных лучей по каждому направлению.
+ */
+public final class HexGrid {
+    /** Радиус доски. */
+    public static final int RADIUS = 5;
+
+    /** Количество полей на доске Глинского. */
+    public static final int CELL_COUNT = 91;
+
+    private static final int DIAMETER = 2 * RADIUS + 1;
+
+    /** Прямые направления (ладья, король, соседние поля). */
+    public static final Hex[] ROOK_DIRECTIONS = {
+            new Hex(1, 0, -1), new Hex(1, -1, 0), new Hex(0, -1, 1),
+            new Hex(-1, 0, 1), new Hex(-1, 1, 0), new Hex(0, 1, -1)
+    };
+
+    /** Диагональные направления (слон). */
+    public static final Hex[] BISHOP_DIRECTIONS = {
+            new Hex(2, -1, -1), new Hex(1, -2, 1), new Hex(-1, -1, 2),
+            new Hex(-2, 1, 1), new Hex(-1, 2, -1), new Hex(1, 1, -2)
+    };
+
+    /** Смещения коня: все 12 полей на расстоянии 2. */
+    public static final Hex[] KNIGHT_OFFSETS = {
+            new Hex(2, -1, -1), new Hex(1, -2, 1), new Hex(-1, -1, 2),
+            new Hex(-2, 1, 1), new Hex(-1, 2, -1), new Hex(1, 1, -2),
+            new Hex(2, 0, -2), new Hex(0, -2, 2), new Hex(-2, 0, 2),
+            new Hex(0, 2, -2), new Hex(2, -2, 0), new Hex(-2, 2, 0)
+    };
+
+    private static final int[] INDEX = new int[DIAMETER * DIAMETER];
+    private static final Hex[] CELLS = new Hex[CELL_COUNT];
+
+    private static final int[][] NEIGHBOURS = new int[CELL_COUNT][];
+    private static final int[][] DIAGONALS = new int[CELL_COUNT][];
+    private static final int[][] KNIGHT_TARGETS = new int[CELL_COUNT][];
+    private static final int[][] KING_TARGETS = new int[CELL_COUNT][];
+    private static final int[][][] ROOK_RAYS = new int[CELL_COUNT][][];
+    private static final int[][][] BISHOP_RAYS = new int[CELL_COUNT][][];
+    private static final Hex[][] DIRECTION_BETWEEN = new Hex[CELL_COUNT][CELL_COUNT];
+
+    static {
+        Arrays.fill(INDEX, -1);
+        int index = 0;
+        for (int q = -RADIUS; q <= RADIUS; q++) {
+            for (int r = -RADIUS; r <= RADIUS; r++) {
+                int s = -q - r;
+                if (Math.abs(s) <= RADIUS) {
+                    INDEX[(q + RADIUS) * DIAMETER + (r + RADIUS)] = index;
+                    CELLS[index] = new Hex(q, r, s);
+                    index++;
+                }
+            }
+        }
+
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            NEIGHBOURS[cell] = buildSteps(cell, ROOK_DIRECTIONS);
+            DIAGONALS[cell] = buildSteps(cell, BISHOP_DIRECTIONS);
+            KNIGHT_TARGETS[cell] = compact(buildSteps(cell, KNIGHT_OFFSETS));
+            KING_TARGETS[cell] = compact(NEIGHBOURS[cell]);
+            ROOK_RAYS[cell] = buildRays(cell, ROOK_DIRECTIONS);
+            BISHOP_RAYS[cell] = buildRays(cell, BISHOP_DIRECTIONS);
+        }
+
+        for (int from = 0; from < CELL_COUNT; from++) {
+            for (int to = 0; to < CELL_COUNT; to++) {
+                DIRECTION_BETWEEN[from][to] = reduceDirection(CELLS[from], CELLS[to]);
+            }
+        }
+    }
+
+    private HexGrid() {
+    }
+
+    /**
+     * Возвращает номер поля с координатами (q, r) или -1, если поле вне доски.
+     */
+    public static int indexOf(int q, int r) {
+        if (q < -RADIUS || q > RADIUS || r < -RADIUS || r > RADIUS) {
+            return -1;
+        }
+        return INDEX[(q + RADIUS) * DIAMETER + (r + RADIUS)];
+    }
+
+    /**
+     * Возвращает номер поля или -1, если поле вне доски.
+     */
+    public static int indexOf(Hex hex) {
+        return hex == null ? -1 : indexOf(hex.getQ(), hex.getR());
+    }
+
+    /**
+     * Возвращает канонический экземпляр поля по его номеру.
+     */
+    public static Hex cellAt(int index) {
+        return CELLS[index];
+    }
+
+    /**
+     * Возвращает канонический экземпляр поля с координатами (q, r)
+     * или null, если поле вне доски.
+     */
+    public static Hex get(int q, int r) {
+        int index = indexOf(q, r);
+        return index >= 0 ? CELLS[index] : null;
+    }
+
+    /**
+     * Возвращает соседнее поле в прямом направлении direction (индекс в {@link #ROOK_DIRECTIONS})
+     * или -1, если оно вне доски.
+     */
+    public static int neighbour(int cell, int direction) {
+        return NEIGHBOURS[cell][direction];
+    }
+
+    /**
+     * Возвращает ближайшее поле по диагонали direction (индекс в {@link #BISHOP_DIRECTIONS})
+     * или -1, если оно вне доски.
+     */
+    public static int diagonal(int cell, int direction) {
+        return DIAGONALS[cell][direction];
+    }
+
+    /**
+     * Возвращает поля, доступные коню с указанного поля.
+     */
+    public static int[] knightTargets(int cell) {
+        return KNIGHT_TARGETS[cell];
+    }
+
+    /**
+     * Возвращает соседние поля, доступные королю с указанного поля.
+     */
+    public static int[] kingTargets(int cell) {
+        return KING_TARGETS[cell];
+    }
+
+    /**
+     * Возвращает лучи по прямым направлениям: [направление] -> поля до края доски.
+     */
+    public static int[][] rookRays(int cell) {
+        return ROOK_RAYS[cell];
+    }
+
+    /**
+     * Возвращает лучи по диагональным направлениям: [направление] -> поля до края доски.
+     */
+    public static int[][] bishopRays(int cell) {
+        return BISHOP_RAYS[cell];
+    }
+
+    /**
+     * Возвращает приведенное направление между двумя полями доски
+     * или null, если поля совпадают.
+     */
+    public static Hex directionBetween(int from, int to) {
+        return DIRECTION_BETWEEN[from][to];
+    }
+
+    /**
+     * Строит таблицу полей на один шаг по каждому смещению (-1 для полей вне доски).
+     */
+    private static int[] buildSteps(int cell, Hex[] offsets) {
+        int[] steps = new int[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            steps[i] = indexOf(CELLS[cell].getQ() + offsets[i].getQ(), CELLS[cell].getR() + offsets[i].getR());
+        }
+        return steps;
+    }
+
+    /**
+     * Строит лучи от поля до края доски по каждому направлению.
+     */
+    private static int[][] buildRays(int cell, Hex[] directions) {
+        int[][] rays = new int[directions.length][];
+        int[] path = new int[DIAMETER];
+
+        for (int d = 0; d < directions.length; d++) {
+            int length = 0;
+            int q = CELLS[cell].getQ() + directions[d].getQ();
+            int r = CELLS[cell].getR() + directions[d].getR();
+            int next = indexOf(q, r);
+            while (next >= 0) {
+                path[length++] = next;
+                q += directions[d].getQ();
+                r += directions[d].getR();
+                next = indexOf(q, r);
+            }
+            rays[d] = Arrays.copyOf(path, length);
+        }
+
+        return rays;
+    }
+
+    /**
+     * Убирает из таблицы поля вне доски.
+     */
+    private static int[] compact(int[] steps) {
+        return Arrays.stream(steps).filter(step -> step >= 0).toArray();
+    }
+
+    /**
+     * Вычисляет направление между полями, сокращая разность координат на НОД.
+     * Если направление попадает на доску, возвращается канонический экземпляр.
+     */
+    private static Hex reduceDirection(Hex from, Hex to) {
+        int dq = to.getQ() - from.getQ();
+        int dr = to.getR() - from.getR();
+        int ds = to.getS() - from.getS();
+
+        int gcd = gcd(gcd(Math.abs(dq), Math.abs(dr)), Math.abs(ds));
+        if (gcd == 0) {
+            return null;
+        }
+
+        Hex canonical = get(dq / gcd, dr / gcd);
+        return canonical != null ? canonical : new Hex(dq / gcd, dr / gcd, ds / gcd);
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int temp = b;
+            b = a % b;
+            a = temp;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import java.util.Arrays;
+
+/**
+ * Переиспользуемый список ходов, упакованных в int (см. {@link PackedMove}).
+ * Хранит ходы в массиве примитивов, поэтому генерация ходов и перебор
+ * не создают объектов; обычно заводится по одному списку на каждый уровень перебора.
+ */
+public class MoveList {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Добавляет ход в конец списка.
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Заменяет ход в указанной позиции списка.
+     */
+    public void set(int i, int move) {
+        moves[i] = move;
+    }
+
+    /**
+     * Меняет местами два хода.
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    /**
+     * Обрезает список до указанного количества ходов.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Очищает список без освобождения памяти.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int i) {
+        return moves[i];
+    }
+
+    public int getFrom(int i) {
+        return PackedMove.from(moves[i]);
+    }
+
+    public int getTo(int i) {
+        return PackedMove.to(moves[i]);
+    }
+
+    /**
+     * Проверяет, есть ли в списке ход с полями from и to.
+     */
+    public boolean contains(int from, int to) {
+        return find(from, to) != PackedMove.NONE;
+    }
+
+    /**
+     * Возвращает ход с полями from и to вместе с его флагами или {@link PackedMove#NONE}.
+     */
+    public int find(int from, int to) {
+        int squares = PackedMove.of(from, to);
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.squares(moves[i]) == squares) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+/**
+ * Упаковка хода в одно число int для генерации ходов и перебора.
+ * Раскладка (от младших битов): 7 бит - поле откуда, 7 бит - поле куда (номера {@link HexGrid}),
+ * 3 бита - фигура превращения (порядковый номер {@link PieceType} + 1, 0 - без превращения),
+ * затем флаги {@link #CAPTURE} и {@link #DOUBLE_PAWN_PUSH}.
+ * Объекты {@link Move} создаются из упакованных ходов только для интерфейса и истории партии.
+ */
+public final class PackedMove {
+    /** Отсутствие хода: поля откуда и куда не могут совпадать, поэтому 0 не является ходом. */
+    public static final int NONE = 0;
+    /** Ход со взятием фигуры. */
+    public static final int CAPTURE = 1 << 17;
+    /** Ход пешки на два поля. */
+    public static final int DOUBLE_PAWN_PUSH = 1 << 18;
+
+    private static final int CELL_MASK = 0x7F;
+    private static final int TO_SHIFT = 7;
+    private static final int SQUARES_MASK = 0x3FFF;
+    private static final int PROMOTION_SHIFT = 14;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * Упаковывает тихий ход без превращения.
+     */
+    public static int of(int from, int to) {
+        return from | to << TO_SHIFT;
+    }
+
+    /**
+     * Упаковывает ход с флагами и фигурой превращения (null - без превращения).
+     */
+    public static int of(int from, int to, PieceType promotion, int flags) {
+        int move = from | to << TO_SHIFT | flags;
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << PROMOTION_SHIFT;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & CELL_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & CELL_MASK;
+    }
+
+    /**
+     * Возвращает только поля хода без превращения и флагов.
+     * Используется для сравнения ходов и хранения в таблице транспозиций.
+     */
+    public static int squares(int move) {
+        return move & SQUARES_MASK;
+    }
+
+    /**
+     * Возвращает фигуру превращения или null, если ход без превращения.
+     */
+    public static PieceType promotion(int move) {
+        int code = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+}
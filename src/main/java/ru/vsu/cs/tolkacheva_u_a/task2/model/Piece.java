@@ -59,6 +59,16 @@ public class Piece {
         this.position = null;
     }
 
+    /**
+     * Возвращает фигуру на поле с восстановлением флага первого хода.
+     * Используется доской при отмене хода.
+     */
+    void restore(Hex position, boolean hasMoved) {
+        this.position = position;
+        this.hasMoved = hasMoved;
+        this.isCaptured = false;
+    }
+
     /**
      * Проверяет, была ли фигура взята.
      */
@@ -34,6 +34,26 @@ public enum PieceType {
         this.symbol = symbol;
     }
 
+    /**
+     * Возвращает букву фигуры в записи позиции: P, R, N, B, Q, K.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Возвращает тип фигуры по букве без учета регистра или null, если буква неизвестна.
+     */
+    public static PieceType fromSymbol(char symbol) {
+        char upper = Character.toUpperCase(symbol);
+        for (PieceType type : values()) {
+            if (type.symbol == upper) {
+                return type;
+            }
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         return name;
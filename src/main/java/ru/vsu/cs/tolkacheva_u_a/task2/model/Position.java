@@ -0,0 +1,62 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+
+/**
+ * Общий интерфейс позиции для бота и проверок допустимости ходов.
+ * Поля адресуются номерами из {@link HexGrid}. Реализуется объектной доской {@link Board}
+ * и битовым представлением {@link BitBoard}.
+ */
+public interface Position {
+
+    /**
+     * Возвращает игрока, который делает ход.
+     */
+    PlayerColor getCurrentPlayer();
+
+    /**
+     * Возвращает 64-битный ключ Зобриста позиции.
+     */
+    long getZobristKey();
+
+    /**
+     * Возвращает тип фигуры на поле или null, если поле пустое.
+     */
+    PieceType getPieceTypeAt(int cell);
+
+    /**
+     * Возвращает цвет фигуры на поле или null, если поле пустое.
+     */
+    PlayerColor getPieceColorAt(int cell);
+
+    /**
+     * Проверяет, атакует ли хотя бы одна фигура указанного цвета поле.
+     */
+    boolean isSquareAttacked(int cell, PlayerColor byColor);
+
+    /**
+     * Проверяет, находится ли король указанного цвета под шахом.
+     */
+    boolean isKingInCheck(PlayerColor color);
+
+    /**
+     * Добавляет в список все допустимые ходы текущего игрока, упакованные в {@link PackedMove}.
+     */
+    void generateLegalMoves(MoveList moves);
+
+    /**
+     * Считает ходы фигур указанного цвета без проверки шаха своему королю.
+     * Очередь хода не учитывается.
+     */
+    int countPseudoLegalMoves(PlayerColor color);
+
+    /**
+     * Выполняет ход с поля from на поле to с возможностью отмены.
+     */
+    void makeMove(int from, int to);
+
+    /**
+     * Отменяет последний выполненный ход.
+     */
+    void unmakeMove();
+}
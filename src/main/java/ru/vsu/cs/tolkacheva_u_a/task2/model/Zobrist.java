@@ -0,0 +1,62 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import java.util.SplittableRandom;
+
+/**
+ * Ключи Зобриста для 64-битной идентификации позиций.
+ * Ключ позиции - XOR ключей (тип фигуры, цвет, поле) всех фигур
+ * и ключа очереди хода, если ходят черные. Генератор инициализируется
+ * фиксированным зерном, поэтому ключи совпадают между запусками.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x61E5_4B1C_2D0F_7A93L;
+    private static final int PIECE_TYPES = PieceType.values().length;
+
+    private static final long[] PIECE_KEYS = new long[2 * PIECE_TYPES * HexGrid.CELL_COUNT];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Возвращает ключ фигуры указанного типа и цвета на поле.
+     */
+    public static long pieceKey(PieceType type, PlayerColor color, int cell) {
+        int side = color == PlayerColor.WHITE ? 0 : 1;
+        return PIECE_KEYS[(side * PIECE_TYPES + type.ordinal()) * HexGrid.CELL_COUNT + cell];
+    }
+
+    /**
+     * Возвращает ключ очереди хода черных.
+     */
+    public static long sideKey() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * Вычисляет ключ позиции с нуля. Используется для позиций из записи
+     * и для проверки инкрементального обновления.
+     */
+    public static long keyOf(Position position) {
+        long key = 0L;
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            PieceType type = position.getPieceTypeAt(cell);
+            if (type != null) {
+                key ^= pieceKey(type, position.getPieceColorAt(cell), cell);
+            }
+        }
+        if (position.getCurrentPlayer() == PlayerColor.BLACK) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key;
+    }
+}
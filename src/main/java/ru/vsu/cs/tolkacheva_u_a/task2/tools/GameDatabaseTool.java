@@ -0,0 +1,156 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameDatabase;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameDatabaseWriter;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordReader;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionNotation;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionStats;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Создание базы партий {@link GameDatabase} из файлов записи партий и запросы к ней.
+ *
+ * <p>Запуск: {@code GameDatabaseTool --build <база> <файл записи>...} - собрать базу из партий,
+ * начатых с начальной расстановки (остальные пропускаются), или
+ * {@code GameDatabaseTool --query <база> [--position "<запись>"] [--moves "c1-e3 ..."] [--games N]} -
+ * вывести число партий, прошедших через позицию, их результаты по следующим ходам
+ * и номера первых N партий. Позиция задается как в {@link Perft}.
+ */
+public final class GameDatabaseTool {
+
+    private GameDatabaseTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--build")) {
+            List<Path> records = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                records.add(Path.of(args[i]));
+            }
+            build(Path.of(args[1]), records);
+            return;
+        }
+        if (args.length < 2 || !args[0].equals("--query")) {
+            printUsage();
+            return;
+        }
+
+        String position = PositionNotation.START_POSITION;
+        String moves = "";
+        int listGames = 0;
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                printUsage();
+                return;
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--position" -> position = value;
+                case "--moves" -> moves = value;
+                case "--games" -> {
+                    try {
+                        listGames = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        printUsage();
+                        return;
+                    }
+                }
+                default -> {
+                    printUsage();
+                    return;
+                }
+            }
+        }
+
+        long key;
+        try {
+            BitBoard board = new BitBoard(PositionNotation.parse(position));
+            Perft.playMoves(board, moves);
+            key = board.getZobristKey();
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        try (GameDatabase database = new GameDatabase(Path.of(args[1]))) {
+            query(database, key, listGames);
+        }
+    }
+
+    /**
+     * Собирает базу из файлов записи партий.
+     */
+    private static void build(Path database, List<Path> records) throws IOException {
+        long startTime = System.nanoTime();
+        int skipped = 0;
+
+        try (GameDatabaseWriter writer = new GameDatabaseWriter(database)) {
+            for (Path record : records) {
+                try (GameRecordReader reader = new GameRecordReader(record)) {
+                    GameRecord game;
+                    while ((game = reader.next()) != null) {
+                        if (!game.getStartPosition().equals(PositionNotation.START_POSITION)) {
+                            skipped++;
+                            continue;
+                        }
+                        try {
+                            writer.addGame(game.getMoves(), game.getResult());
+                        } catch (IllegalArgumentException e) {
+                            System.out.println(record + ": партия пропущена: " + e.getMessage());
+                            skipped++;
+                        }
+                    }
+                }
+            }
+            System.out.println("Партий: " + writer.getGameCount() + ", пропущено: " + skipped);
+        }
+
+        try (GameDatabase result = new GameDatabase(database)) {
+            System.out.printf("Ходов: %d, записей индекса: %d, записей статистики: %d, время: %.2f с%n",
+                    result.getMoveCount(), result.getIndexSize(), result.getStatsSize(),
+                    (System.nanoTime() - startTime) / 1e9);
+        }
+    }
+
+    private static void query(GameDatabase database, long key, int listGames) {
+        long startTime = System.nanoTime();
+        PositionStats stats = database.getPositionStats(key);
+        double millis = (System.nanoTime() - startTime) / 1e6;
+
+        System.out.printf("Партий с позицией: %d из %d (%.2f мс)%n", stats.getGames(), database.getGameCount(), millis);
+        if (stats.getGames() == 0) {
+            return;
+        }
+        System.out.println("Итог: " + results(stats.getWhiteWins(), stats.getDraws(), stats.getBlackWins(),
+                stats.getWhiteScore()));
+        for (int i = 0; i < stats.getMoveCount(); i++) {
+            System.out.println(GlinskiNotation.moveName(stats.getMove(i)) + ": " + stats.getMoveGames(i) + " партий, " +
+                    results(stats.getMoveWhiteWins(i), stats.getMoveDraws(i), stats.getMoveBlackWins(i),
+                            stats.getMoveWhiteScore(i)));
+        }
+
+        if (listGames > 0) {
+            for (int game : database.findGames(key, listGames)) {
+                System.out.println("Партия " + game + ": " + database.getPlyCount(game) + " полуходов, " +
+                        database.getResult(game));
+            }
+        }
+    }
+
+    private static String results(int whiteWins, int draws, int blackWins, double whiteScore) {
+        String score = Double.isNaN(whiteScore) ? "-" : String.format("%.1f%%", whiteScore * 100);
+        return "белые " + whiteWins + ", ничьи " + draws + ", черные " + blackWins + ", очки белых " + score;
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: GameDatabaseTool --build <база> <файл записи>...");
+        System.out.println("               GameDatabaseTool --query <база> [--position \"<запись>\"] " +
+                "[--moves \"c1-e3 ...\"] [--games N]");
+    }
+}
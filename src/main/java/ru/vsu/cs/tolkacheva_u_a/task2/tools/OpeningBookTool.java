@@ -0,0 +1,151 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.OpeningBook;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.OpeningBookBuilder;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordReader;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionNotation;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Сборка книги дебютов {@link OpeningBook} из файлов записи партий и просмотр ходов книги.
+ *
+ * <p>Запуск: {@code OpeningBookTool --build <книга> <файл записи>... [--plies N] [--min-games N]} -
+ * собрать книгу из первых N полуходов (по умолчанию {@value #DEFAULT_PLIES}) завершенных партий,
+ * начатых с начальной расстановки, оставив ходы, сыгранные хотя бы в min-games партиях
+ * (по умолчанию {@value #DEFAULT_MIN_GAMES}); или
+ * {@code OpeningBookTool --probe <книга> [--position "<запись>"] [--moves "c1-e3 ..."]} -
+ * вывести ходы книги для позиции с весами и время выбора хода.
+ */
+public final class OpeningBookTool {
+    private static final int DEFAULT_PLIES = 16;
+    private static final int DEFAULT_MIN_GAMES = 2;
+    private static final int PROBE_REPETITIONS = 1_000_000;
+
+    private OpeningBookTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !args[0].equals("--build") && !args[0].equals("--probe")) {
+            printUsage();
+            return;
+        }
+
+        int plies = DEFAULT_PLIES;
+        int minGames = DEFAULT_MIN_GAMES;
+        String position = PositionNotation.START_POSITION;
+        String moves = "";
+        List<Path> records = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                records.add(Path.of(args[i]));
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                printUsage();
+                return;
+            }
+            String value = args[++i];
+            try {
+                switch (args[i - 1]) {
+                    case "--plies" -> plies = Integer.parseInt(value);
+                    case "--min-games" -> minGames = Integer.parseInt(value);
+                    case "--position" -> position = value;
+                    case "--moves" -> moves = value;
+                    default -> {
+                        printUsage();
+                        return;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Неверное значение параметра " + args[i - 1] + ": " + value);
+                return;
+            }
+        }
+
+        if (args[0].equals("--build")) {
+            build(Path.of(args[1]), records, plies, minGames);
+            return;
+        }
+
+        BitBoard board;
+        try {
+            board = new BitBoard(PositionNotation.parse(position));
+            Perft.playMoves(board, moves);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        probe(new OpeningBook(Path.of(args[1])), board.getZobristKey());
+    }
+
+    private static void build(Path book, List<Path> records, int plies, int minGames) throws IOException {
+        long startTime = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        int games = 0;
+        int skipped = 0;
+
+        for (Path record : records) {
+            try (GameRecordReader reader = new GameRecordReader(record)) {
+                GameRecord game;
+                while ((game = reader.next()) != null) {
+                    if (!game.getStartPosition().equals(PositionNotation.START_POSITION)) {
+                        skipped++;
+                        continue;
+                    }
+                    try {
+                        if (builder.addGame(game.getMoves(), game.getResult())) {
+                            games++;
+                        } else {
+                            skipped++;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(record + ": партия пропущена: " + e.getMessage());
+                        skipped++;
+                    }
+                }
+            }
+        }
+
+        int entries = builder.write(book, minGames);
+        System.out.printf("Партий: %d, пропущено: %d, ходов в книге: %d, время: %.2f с%n",
+                games, skipped, entries, (System.nanoTime() - startTime) / 1e9);
+    }
+
+    private static void probe(OpeningBook book, long key) {
+        System.out.println("Позиций в книге: " + book.getPositionCount() + ", ходов: " + book.getEntryCount());
+        int first = book.findPosition(key);
+        if (first < 0) {
+            System.out.println("Позиции нет в книге");
+            return;
+        }
+
+        int total = 0;
+        for (int i = first; i < book.getEntryCount() && book.getKey(i) == key; i++) {
+            total += book.getWeight(i);
+        }
+        for (int i = first; i < book.getEntryCount() && book.getKey(i) == key; i++) {
+            System.out.printf("%s: вес %d (%.1f%%)%n", GlinskiNotation.moveName(book.getMove(i)), book.getWeight(i),
+                    100.0 * book.getWeight(i) / total);
+        }
+
+        SplittableRandom random = new SplittableRandom(1);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < PROBE_REPETITIONS; i++) {
+            book.probe(key, random);
+        }
+        double nanos = (double) (System.nanoTime() - startTime) / PROBE_REPETITIONS;
+        System.out.printf("Выбор хода: %.0f нс%n", nanos);
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: OpeningBookTool --build <книга> <файл записи>... [--plies N] [--min-games N]");
+        System.out.println("               OpeningBookTool --probe <книга> [--position \"<запись>\"] [--moves \"c1-e3 ...\"]");
+    }
+}
@@ -0,0 +1,251 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionNotation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Подсчет дерева допустимых ходов (perft) для проверки и замера генерации ходов.
+ *
+ * <p>Запуск: {@code Perft <глубина> [--divide] [--board] [--position "<запись>"] [--moves "f5-f6 f7-f6 ..."]}
+ * или {@code Perft --check [--board]} для сверки с эталонами из {@value #FIXTURES}.
+ * Позиция задается записью {@link PositionNotation}, по умолчанию - начальная расстановка.
+ * По умолчанию считается на {@link BitBoard}, с флагом --board - на объектной {@link Board}
+ * через {@link ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator}.
+ */
+public final class Perft {
+    private static final String FIXTURES = "/perft.txt";
+    private static final int MAX_DEPTH = 16;
+
+    private final Position position;
+    private final MoveList[] moveLists = new MoveList[MAX_DEPTH + 1];
+
+    public Perft(Position position) {
+        this.position = position;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Считает листья дерева допустимых ходов глубины depth.
+     */
+    public long perft(int depth) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Глубина должна быть от 0 до " + MAX_DEPTH);
+        }
+        return count(depth);
+    }
+
+    /**
+     * Считает листья для каждого хода из корня и печатает их.
+     * Возвращает общее число листьев.
+     */
+    public long divide(int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Глубина должна быть от 1 до " + MAX_DEPTH);
+        }
+
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        position.generateLegalMoves(moves);
+
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            position.makeMove(PackedMove.from(move), PackedMove.to(move));
+            long nodes = count(depth - 1);
+            position.unmakeMove();
+
+            System.out.println(GlinskiNotation.moveName(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println("Ходов: " + moves.size());
+        return total;
+    }
+
+    private long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        position.generateLegalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.getFrom(i), moves.getTo(i));
+            nodes += count(depth - 1);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Выполняет последовательность ходов вида "f5-f6" из текущей позиции.
+     * @throws IllegalArgumentException если ход записан неверно или недопустим
+     */
+    public static void playMoves(Position position, String moves) {
+        MoveList legal = new MoveList();
+        for (String move : moves.trim().split("\\s+")) {
+            if (move.isEmpty() || move.equals("-")) {
+                continue;
+            }
+
+            String[] cells = move.split("-");
+            if (cells.length != 2) {
+                throw new IllegalArgumentException("Неверная запись хода: " + move);
+            }
+            int from = GlinskiNotation.parseCell(cells[0]);
+            int to = GlinskiNotation.parseCell(cells[1]);
+
+            legal.clear();
+            position.generateLegalMoves(legal);
+            if (!legal.contains(from, to)) {
+                throw new IllegalArgumentException("Недопустимый ход: " + move);
+            }
+            position.makeMove(from, to);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean useBoard = false;
+        boolean divide = false;
+        boolean check = false;
+        String moves = "";
+        String position = PositionNotation.START_POSITION;
+        int depth = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--board" -> useBoard = true;
+                case "--divide" -> divide = true;
+                case "--check" -> check = true;
+                case "--moves" -> {
+                    if (i + 1 >= args.length) {
+                        printUsage();
+                        return;
+                    }
+                    moves = args[++i];
+                }
+                case "--position" -> {
+                    if (i + 1 >= args.length) {
+                        printUsage();
+                        return;
+                    }
+                    position = args[++i];
+                }
+                default -> {
+                    try {
+                        depth = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException e) {
+                        printUsage();
+                        return;
+                    }
+                }
+            }
+        }
+
+        if (check) {
+            System.exit(checkFixtures(useBoard) ? 0 : 1);
+        }
+        if (depth < 0) {
+            printUsage();
+            return;
+        }
+
+        Perft perft;
+        try {
+            perft = new Perft(createPosition(useBoard, position, moves));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        long nodes = divide ? perft.divide(depth) : perft.perft(depth);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Глубина " + depth + ": " + nodes + " узлов");
+        printSpeed(nodes, elapsed);
+    }
+
+    /**
+     * Сверяет perft с эталонами. Строка эталона: глубина, число листьев и ходы от начальной расстановки.
+     */
+    private static boolean checkFixtures(boolean useBoard) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = Perft.class.getResourceAsStream(FIXTURES)) {
+            if (in == null) {
+                System.out.println("Не найден файл эталонов " + FIXTURES);
+                return false;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        }
+
+        boolean ok = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+        for (String line : lines) {
+            String[] parts = line.split("\\s+", 3);
+            int depth = Integer.parseInt(parts[0]);
+            long expected = Long.parseLong(parts[1]);
+            String moves = parts.length > 2 ? parts[2] : "";
+
+            Perft perft = new Perft(createPosition(useBoard, PositionNotation.START_POSITION, moves));
+            long start = System.nanoTime();
+            long nodes = perft.perft(depth);
+            totalTime += System.nanoTime() - start;
+            totalNodes += nodes;
+
+            boolean passed = nodes == expected;
+            ok &= passed;
+            System.out.println((passed ? "OK   " : "FAIL ") + line + (passed ? "" : " (получено " + nodes + ")"));
+        }
+
+        printSpeed(totalNodes, totalTime);
+        return ok;
+    }
+
+    private static Position createPosition(boolean useBoard, String notation, String moves) {
+        Board board = PositionNotation.parse(notation);
+        Position position = useBoard ? board : new BitBoard(board);
+        playMoves(position, moves);
+        return position;
+    }
+
+    private static void printSpeed(long nodes, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long nps = seconds > 0 ? (long) (nodes / seconds) : 0;
+        System.out.printf("Время: %.3f с, %d узлов/с%n", seconds, nps);
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: Perft <глубина> [--divide] [--board] [--position \"<запись>\"] " +
+                "[--moves \"f5-f6 ...\"]");
+        System.out.println("               Perft --check [--board]");
+    }
+}
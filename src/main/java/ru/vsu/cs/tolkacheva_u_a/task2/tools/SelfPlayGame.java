@@ -0,0 +1,75 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.controller.AIController;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.MoveValidator;
+import java.util.SplittableRandom;
+
+/**
+ * Партия бота против бота без графического интерфейса.
+ * Каждая сторона - отдельный {@link AIController} на общей доске.
+ * Первые ходы боты выбирают случайно, чтобы партии различались, дальше ходы ищет перебор.
+ * Генераторы ботов получаются из зерна партии, поэтому при поиске, ограниченном только глубиной,
+ * партия с тем же зерном и настройками повторяется ход в ход.
+ */
+public class SelfPlayGame {
+    private final EngineConfig config;
+    private final int randomPlies;
+    private final int maxPlies;
+
+    public SelfPlayGame(EngineConfig config, int randomPlies, int maxPlies) {
+        this.config = config;
+        this.randomPlies = randomPlies;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Играет партию от начальной расстановки.
+     */
+    public SelfPlayResult play(long seed) {
+        long startTime = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        Board board = new Board();
+        MoveValidator moveValidator = new MoveValidator(board);
+        AIController white = new AIController(board, config, random.split());
+        AIController black = new AIController(board, config, random.split());
+        white.setVerbose(false);
+        black.setVerbose(false);
+
+        MoveList playedMoves = new MoveList();
+        try {
+            while (true) {
+                PlayerColor player = board.getCurrentPlayer();
+                if (!moveValidator.hasLegalMoves(player)) {
+                    SelfPlayResult.Termination termination = moveValidator.isKingInCheck(player) ?
+                            SelfPlayResult.Termination.CHECKMATE : SelfPlayResult.Termination.STALEMATE;
+                    SelfPlayResult.Outcome outcome = player == PlayerColor.WHITE ?
+                            SelfPlayResult.Outcome.BLACK_WINS : SelfPlayResult.Outcome.WHITE_WINS;
+                    return new SelfPlayResult(seed, outcome, termination, playedMoves, System.nanoTime() - startTime);
+                }
+
+                if (playedMoves.size() >= maxPlies) {
+                    return new SelfPlayResult(seed, SelfPlayResult.Outcome.DRAW,
+                            SelfPlayResult.Termination.MOVE_LIMIT, playedMoves, System.nanoTime() - startTime);
+                }
+
+                AIController controller = player == PlayerColor.WHITE ? white : black;
+                int move = playedMoves.size() < randomPlies ?
+                        controller.findRandomMove(player) :
+                        controller.findBestMove(Long.MAX_VALUE);
+
+                playedMoves.add(move);
+                board.movePiece(board.getPieceAt(PackedMove.from(move)), HexGrid.cellAt(PackedMove.to(move)));
+            }
+        } finally {
+            white.shutdown();
+            black.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+
+/**
+ * Результат одной партии бота против бота.
+ */
+public class SelfPlayResult {
+
+    /**
+     * Итог партии.
+     */
+    public enum Outcome {
+        /** Победа белых */
+        WHITE_WINS,
+        /** Победа черных */
+        BLACK_WINS,
+        /** Ничья */
+        DRAW
+    }
+
+    /**
+     * Причина окончания партии.
+     */
+    public enum Termination {
+        /** У игрока нет ходов, король под шахом */
+        CHECKMATE,
+        /** У игрока нет ходов, король не под шахом; по правилам игры это тоже поражение */
+        STALEMATE,
+        /** Достигнут предел числа полуходов */
+        MOVE_LIMIT
+    }
+
+    private final long seed;
+    private final Outcome outcome;
+    private final Termination termination;
+    private final MoveList moves;
+    private final long elapsedNanos;
+
+    SelfPlayResult(long seed, Outcome outcome, Termination termination, MoveList moves, long elapsedNanos) {
+        this.seed = seed;
+        this.outcome = outcome;
+        this.termination = termination;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Возвращает сыгранные ходы по порядку.
+     */
+    public MoveList getMoves() {
+        return moves;
+    }
+
+    public int getPlies() {
+        return moves.size();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Возвращает результат в записи партии: "1-0", "0-1" или "1/2-1/2".
+     */
+    public String getResultText() {
+        return switch (outcome) {
+            case WHITE_WINS -> GameRecord.WHITE_WINS;
+            case BLACK_WINS -> GameRecord.BLACK_WINS;
+            case DRAW -> GameRecord.DRAW;
+        };
+    }
+
+    @Override
+    public String toString() {
+        String result = switch (outcome) {
+            case WHITE_WINS -> "победа белых";
+            case BLACK_WINS -> "победа черных";
+            case DRAW -> "ничья";
+        };
+        String reason = switch (termination) {
+            case CHECKMATE -> "мат";
+            case STALEMATE -> "пат";
+            case MOVE_LIMIT -> "предел ходов";
+        };
+        return String.format("%s (%s), %d полуходов, %.2f с", result, reason, getPlies(), elapsedNanos / 1e9);
+    }
+}
@@ -0,0 +1,184 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordWriter;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GlinskiNotation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Консольный запуск партий бота против бота без JavaFX и без пауз между ходами.
+ *
+ * <p>Параметры: {@code --games N} - число партий, {@code --seed S} - зерно первой партии
+ * (партия i получает зерно S + i), {@code --random-plies N} - число случайных первых полуходов,
+ * {@code --max-plies N} - предел длины партии, после которого объявляется ничья,
+ * {@code --replay S} - повторить одну партию с зерном S и напечатать ее ходы,
+ * {@code --record FILE} - дописывать сыгранные партии в файл записи партий ({@link GameRecordWriter}).
+ * Также принимаются параметры бота: --depth, --movetime, --hash, --threads.
+ * По умолчанию время на ход не ограничено, поэтому партии воспроизводимы по зерну;
+ * с --movetime результат поиска зависит от скорости машины.
+ */
+public final class SelfPlayRunner {
+    private static final int DEFAULT_GAMES = 10;
+    static final long DEFAULT_SEED = 1;
+    static final int DEFAULT_RANDOM_PLIES = 4;
+    static final int DEFAULT_MAX_PLIES = 300;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_HASH_SIZE_MB = 1;
+
+    private SelfPlayRunner() {
+    }
+
+    /**
+     * Настройки бота по умолчанию для партий без интерфейса: малая глубина и маленькая таблица.
+     */
+    static EngineConfig defaultEngineConfig() {
+        EngineConfig config = new EngineConfig();
+        config.setMaxDepth(DEFAULT_DEPTH);
+        config.setHashSizeMb(DEFAULT_HASH_SIZE_MB);
+        config.setMoveTimeMillis(EngineConfig.UNLIMITED_MOVE_TIME);
+        return config;
+    }
+
+    public static void main(String[] args) {
+        int games = DEFAULT_GAMES;
+        long seed = DEFAULT_SEED;
+        int randomPlies = DEFAULT_RANDOM_PLIES;
+        int maxPlies = DEFAULT_MAX_PLIES;
+        Long replaySeed = null;
+        String recordFile = null;
+
+        EngineConfig config = defaultEngineConfig();
+
+        for (int i = 0; i < args.length; i += 2) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                System.out.println("Не указано значение параметра " + option);
+                return;
+            }
+            String value = args[i + 1];
+
+            try {
+                switch (option) {
+                    case "--games" -> games = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--random-plies" -> randomPlies = Integer.parseInt(value);
+                    case "--max-plies" -> maxPlies = Integer.parseInt(value);
+                    case "--replay" -> replaySeed = Long.parseLong(value);
+                    case "--record" -> recordFile = value;
+                    default -> {
+                        if (!config.setOption(option, value)) {
+                            System.out.println("Неизвестный параметр " + option);
+                            return;
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("Неверное значение параметра " + option + ": " + value);
+                return;
+            }
+        }
+
+        SelfPlayGame game = new SelfPlayGame(config, randomPlies, maxPlies);
+        if (replaySeed != null) {
+            replay(game, replaySeed, config);
+            return;
+        }
+
+        GameRecordWriter recordWriter;
+        try {
+            recordWriter = openRecord(recordFile);
+        } catch (IOException e) {
+            System.out.println("Не удалось открыть файл записи партий: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Партий: " + games + ", зерно: " + seed + ", " + config);
+        int whiteWins = 0;
+        int blackWins = 0;
+        int draws = 0;
+        long totalPlies = 0;
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            SelfPlayResult result = game.play(seed + i);
+            System.out.println("Партия " + (i + 1) + " (зерно " + result.getSeed() + "): " + result);
+            record(recordWriter, result);
+
+            switch (result.getOutcome()) {
+                case WHITE_WINS -> whiteWins++;
+                case BLACK_WINS -> blackWins++;
+                case DRAW -> draws++;
+            }
+            totalPlies += result.getPlies();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        closeRecord(recordWriter);
+
+        System.out.printf("Белые: %d, черные: %d, ничьи: %d%n", whiteWins, blackWins, draws);
+        System.out.printf("Время: %.2f с, партий/с: %.3f, полуходов/с: %.1f%n",
+                seconds, games / seconds, totalPlies / seconds);
+    }
+
+    /**
+     * Открывает файл записи партий или возвращает null, если файл не задан.
+     */
+    static GameRecordWriter openRecord(String file) throws IOException {
+        return file == null ? null : new GameRecordWriter(Path.of(file), false);
+    }
+
+    /**
+     * Дописывает партию в файл записи, если он открыт.
+     * @throws UncheckedIOException при ошибке записи
+     */
+    static void record(GameRecordWriter writer, SelfPlayResult result) {
+        if (writer == null) {
+            return;
+        }
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "SelfPlay");
+        tags.put("Seed", Long.toString(result.getSeed()));
+        tags.put("Termination", result.getTermination().name());
+        tags.put("Result", result.getResultText());
+        try {
+            writer.writeGame(tags, result.getMoves(), result.getResultText());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void closeRecord(GameRecordWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("Ошибка записи партий: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Повторяет партию с заданным зерном и печатает ее ходы в нотации Глинского.
+     */
+    private static void replay(SelfPlayGame game, long seed, EngineConfig config) {
+        System.out.println("Повтор партии с зерном " + seed + ", " + config);
+        SelfPlayResult result = game.play(seed);
+
+        MoveList moves = result.getMoves();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < moves.size(); i++) {
+            if (i % 2 == 0) {
+                sb.append(i / 2 + 1).append(". ");
+            }
+            sb.append(GlinskiNotation.moveName(moves.get(i))).append(' ');
+        }
+        System.out.println(sb.toString().trim());
+        System.out.println(result);
+    }
+}
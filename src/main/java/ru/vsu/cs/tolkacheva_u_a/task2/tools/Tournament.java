@@ -0,0 +1,169 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Турнир бота против бота: множество независимых партий параллельно.
+ * Каждая партия играется на своей доске со своим зерном, результаты
+ * собираются в общие счетчики {@link TournamentStats}.
+ *
+ * <p>Параметры: {@code --games N}, {@code --seed S}, {@code --workers N} - число одновременных партий
+ * (по умолчанию число ядер), {@code --virtual} - запускать партии в виртуальных потоках,
+ * {@code --verbose} - печатать результат каждой партии. Остальные параметры, включая {@code --record},
+ * - как у {@link SelfPlayRunner}.
+ */
+public class Tournament {
+    private static final int DEFAULT_GAMES = 100;
+
+    private final SelfPlayGame game;
+    private final int workers;
+    private final boolean virtualThreads;
+    private final boolean verbose;
+    private GameRecordWriter recordWriter;
+
+    public Tournament(SelfPlayGame game, int workers, boolean virtualThreads, boolean verbose) {
+        this.game = game;
+        this.workers = workers;
+        this.virtualThreads = virtualThreads;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Задает файл, в который дописывается каждая сыгранная партия; null - не записывать.
+     * Партии пишутся целиком в порядке завершения.
+     */
+    public void setRecordWriter(GameRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
+    /**
+     * Играет games партий с зернами seed, seed + 1, ... и возвращает счетчики результатов.
+     * Одновременно идет не больше workers партий: у виртуальных потоков число
+     * ограничивается семафором, чтобы таблицы транспозиций всех партий не создавались сразу.
+     */
+    public TournamentStats run(int games, long seed) {
+        TournamentStats stats = new TournamentStats();
+        Semaphore slots = new Semaphore(workers);
+
+        ExecutorService executor = virtualThreads ?
+                Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seed + i;
+                futures.add(executor.submit(() -> {
+                    slots.acquireUninterruptibly();
+                    try {
+                        SelfPlayResult result = game.play(gameSeed);
+                        stats.record(result);
+                        SelfPlayRunner.record(recordWriter, result);
+                        if (verbose) {
+                            System.out.println("Партия с зерном " + gameSeed + ": " + result);
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Турнир прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка в партии турнира", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return stats;
+    }
+
+    public static void main(String[] args) {
+        int games = DEFAULT_GAMES;
+        long seed = SelfPlayRunner.DEFAULT_SEED;
+        int randomPlies = SelfPlayRunner.DEFAULT_RANDOM_PLIES;
+        int maxPlies = SelfPlayRunner.DEFAULT_MAX_PLIES;
+        int workers = Runtime.getRuntime().availableProcessors();
+        String recordFile = null;
+        boolean virtualThreads = false;
+        boolean verbose = false;
+
+        EngineConfig config = SelfPlayRunner.defaultEngineConfig();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--virtual")) {
+                virtualThreads = true;
+                continue;
+            }
+            if (option.equals("--verbose")) {
+                verbose = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println("Не указано значение параметра " + option);
+                return;
+            }
+            String value = args[++i];
+
+            try {
+                switch (option) {
+                    case "--games" -> games = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--random-plies" -> randomPlies = Integer.parseInt(value);
+                    case "--max-plies" -> maxPlies = Integer.parseInt(value);
+                    case "--workers" -> workers = Integer.parseInt(value);
+                    case "--record" -> recordFile = value;
+                    default -> {
+                        if (!config.setOption(option, value)) {
+                            System.out.println("Неизвестный параметр " + option);
+                            return;
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println("Неверное значение параметра " + option + ": " + value);
+                return;
+            }
+        }
+        if (workers < 1) {
+            System.out.println("Число одновременных партий должно быть положительным");
+            return;
+        }
+
+        System.out.println("Партий: " + games + ", одновременно: " + workers +
+                (virtualThreads ? " (виртуальные потоки)" : "") + ", зерно: " + seed + ", " + config);
+
+        Tournament tournament = new Tournament(new SelfPlayGame(config, randomPlies, maxPlies),
+                workers, virtualThreads, verbose);
+        GameRecordWriter recordWriter;
+        try {
+            recordWriter = SelfPlayRunner.openRecord(recordFile);
+        } catch (IOException e) {
+            System.out.println("Не удалось открыть файл записи партий: " + e.getMessage());
+            return;
+        }
+        tournament.setRecordWriter(recordWriter);
+
+        long startTime = System.nanoTime();
+        TournamentStats stats;
+        try {
+            stats = tournament.run(games, seed);
+        } finally {
+            SelfPlayRunner.closeRecord(recordWriter);
+        }
+        System.out.println(stats.summary(System.nanoTime() - startTime));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики результатов турнира, которые обновляются из многих потоков без блокировок.
+ */
+public class TournamentStats {
+    private final LongAdder whiteWins = new LongAdder();
+    private final LongAdder blackWins = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+    private final LongAdder gameNanos = new LongAdder();
+
+    /**
+     * Учитывает результат завершенной партии.
+     */
+    public void record(SelfPlayResult result) {
+        switch (result.getOutcome()) {
+            case WHITE_WINS -> whiteWins.increment();
+            case BLACK_WINS -> blackWins.increment();
+            case DRAW -> draws.increment();
+        }
+        plies.add(result.getPlies());
+        gameNanos.add(result.getElapsedNanos());
+    }
+
+    public long getWhiteWins() {
+        return whiteWins.sum();
+    }
+
+    public long getBlackWins() {
+        return blackWins.sum();
+    }
+
+    public long getDraws() {
+        return draws.sum();
+    }
+
+    public long getGames() {
+        return whiteWins.sum() + blackWins.sum() + draws.sum();
+    }
+
+    public long getPlies() {
+        return plies.sum();
+    }
+
+    /**
+     * Возвращает среднюю длину партии в полуходах.
+     */
+    public double getAveragePlies() {
+        long games = getGames();
+        return games == 0 ? 0 : (double) getPlies() / games;
+    }
+
+    /**
+     * Возвращает суммарное время всех партий, без учета параллельности.
+     */
+    public long getGameNanos() {
+        return gameNanos.sum();
+    }
+
+    /**
+     * Формирует сводку турнира за время elapsedNanos.
+     */
+    public String summary(long elapsedNanos) {
+        long white = getWhiteWins();
+        long black = getBlackWins();
+        long drawn = getDraws();
+        double seconds = elapsedNanos / 1e9;
+        return String.format(
+                "Партий: %d%n" +
+                "Белые: +%d =%d -%d%n" +
+                "Черные: +%d =%d -%d%n" +
+                "Средняя длина партии: %.1f полуходов%n" +
+                "Время: %.2f с, партий/с: %.3f, полуходов/с: %.1f",
+                getGames(), white, drawn, black, black, drawn, white,
+                getAveragePlies(), seconds, getGames() / seconds, getPlies() / seconds);
+    }
+}
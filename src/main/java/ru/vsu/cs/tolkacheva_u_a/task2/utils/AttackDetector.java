@@ -0,0 +1,117 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.*;
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import java.util.Arrays;
+
+/**
+ * Определяет атаку на поле без копирования доски и полной проверки ходов.
+ * Лучи ладьи и слона строятся от атакуемого поля наружу,
+ * смещения коня, короля и пешек проверяются напрямую по таблицам.
+ */
+public class AttackDetector {
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    /** Поля, с которых пешка цвета [цвет] бьет поле [поле]. */
+    private static final int[][][] PAWN_ATTACKERS = {
+            invert(MoveGenerator.PAWN_CAPTURES[WHITE]),
+            invert(MoveGenerator.PAWN_CAPTURES[BLACK])
+    };
+
+    private final Board board;
+
+    public AttackDetector(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Проверяет, атакует ли хотя бы одна фигура указанного цвета поле с индексом cell.
+     */
+    public boolean isAttacked(int cell, PlayerColor byColor) {
+        for (int[] ray : HexGrid.rookRays(cell)) {
+            Piece piece = firstPieceOnRay(ray);
+            if (piece != null && piece.getColor() == byColor &&
+                    (piece.getType() == PieceType.ROOK || piece.getType() == PieceType.QUEEN)) {
+                return true;
+            }
+        }
+
+        // Слон и ферзь по диагонали бьют только поля своего цвета
+        Hex.HexColor cellColor = HexGrid.cellAt(cell).getColor();
+        for (int[] ray : HexGrid.bishopRays(cell)) {
+            Piece piece = firstPieceOnRay(ray);
+            if (piece != null && piece.getColor() == byColor &&
+                    (piece.getType() == PieceType.BISHOP || piece.getType() == PieceType.QUEEN) &&
+                    piece.getPosition().getColor() == cellColor) {
+                return true;
+            }
+        }
+
+        if (hasPiece(HexGrid.knightTargets(cell), PieceType.KNIGHT, byColor)) {
+            return true;
+        }
+
+        if (hasPiece(HexGrid.kingTargets(cell), PieceType.KING, byColor)) {
+            return true;
+        }
+
+        int side = byColor == PlayerColor.WHITE ? WHITE : BLACK;
+        return hasPiece(PAWN_ATTACKERS[side][cell], PieceType.PAWN, byColor);
+    }
+
+    /**
+     * Проверяет, атакует ли хотя бы одна фигура указанного цвета заданное поле.
+     */
+    public boolean isAttacked(Hex square, PlayerColor byColor) {
+        int cell = HexGrid.indexOf(square);
+        return cell >= 0 && isAttacked(cell, byColor);
+    }
+
+    /**
+     * Возвращает поля, с которых пешка указанного цвета бьет поле cell.
+     */
+    public static int[] pawnAttackers(int cell, PlayerColor color) {
+        return PAWN_ATTACKERS[color == PlayerColor.WHITE ? WHITE : BLACK][cell];
+    }
+
+    /**
+     * Возвращает первую фигуру на луче или null, если луч свободен.
+     */
+    private Piece firstPieceOnRay(int[] ray) {
+        for (int cell : ray) {
+            Piece piece = board.getPieceAt(cell);
+            if (piece != null) {
+                return piece;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет, стоит ли на одном из полей фигура заданного типа и цвета.
+     */
+    private boolean hasPiece(int[] cells, PieceType type, PlayerColor color) {
+        for (int cell : cells) {
+            Piece piece = board.getPieceAt(cell);
+            if (piece != null && piece.getType() == type && piece.getColor() == color) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Обращает таблицу прыжков: для каждого поля собирает поля, с которых на него можно попасть.
+     */
+    private static int[][] invert(int[][] targets) {
+        int[][] sources = new int[HexGrid.CELL_COUNT][0];
+        for (int from = 0; from < HexGrid.CELL_COUNT; from++) {
+            for (int to : targets[from]) {
+                sources[to] = Arrays.copyOf(sources[to], sources[to].length + 1);
+                sources[to][sources[to].length - 1] = from;
+            }
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,299 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Двоичная база партий, читаемая через отображение файла в память.
+ * Файл создается {@link GameDatabaseWriter} и состоит из заголовка, таблицы партий,
+ * ходов всех партий подряд, индекса позиций и статистики ходов.
+ *
+ * <p>Таблица партий: на партию {@value #GAME_SIZE} байт - номер первого хода, число полуходов и результат.
+ * Ходы: по {@value #MOVE_SIZE} байта на ход в формате {@link PackedMove}.
+ * Индекс: записи по {@value #INDEX_ENTRY_SIZE} байт, отсортированные по ключу Зобриста позиции:
+ * ключ, номер партии и упакованные полуход, результат и следующий ход. Каждая позиция
+ * входит в индекс один раз на партию, с первым полуходом, на котором она встретилась.
+ * Индекс нужен только для поиска партий с позицией.
+ * Статистика: записи по {@value #STATS_ENTRY_SIZE} байт, отсортированные по ключу позиции и ходу:
+ * ключ, следующий ход и число партий с каждым результатом, по одной записи на пару позиции и хода.
+ * Число партий и их результаты по позиции читаются из статистики, поэтому время запроса
+ * зависит от числа разных следующих ходов, а не от числа партий.
+ *
+ * <p>Файл может быть больше 2 ГБ: он отображается частями по {@value #CHUNK_SIZE} байт.
+ * Все записи выровнены по своему размеру и не пересекают границы частей.
+ */
+public class GameDatabase implements Closeable {
+    static final int MAGIC = 0x474C4442;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 128;
+    static final int GAME_SIZE = 16;
+    static final int MOVE_SIZE = 4;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int STATS_ENTRY_SIZE = 32;
+
+    static final int RESULT_UNFINISHED = 0;
+    static final int RESULT_WHITE_WINS = 1;
+    static final int RESULT_BLACK_WINS = 2;
+    static final int RESULT_DRAW = 3;
+    static final int RESULT_COUNT = 4;
+
+    /** Наибольшее число полуходов в партии: номер полухода хранится в 16 битах записи индекса. */
+    public static final int MAX_PLIES = 0xFFFF;
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final int gameCount;
+    private final long moveCount;
+    private final long indexCount;
+    private final long gamesOffset;
+    private final long movesOffset;
+    private final long indexOffset;
+    private final long statsCount;
+    private final long statsOffset;
+
+    /**
+     * Открывает базу только для чтения.
+     * @throws IOException при ошибке чтения или если файл не является базой партий
+     */
+    public GameDatabase(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Файл слишком мал для базы партий: " + file);
+            }
+
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+            }
+
+            if (getInt(0) != MAGIC || getInt(4) != VERSION) {
+                throw new IOException("Неверный формат базы партий: " + file);
+            }
+            gameCount = (int) getLong(8);
+            moveCount = getLong(16);
+            indexCount = getLong(24);
+            gamesOffset = getLong(32);
+            movesOffset = getLong(40);
+            indexOffset = getLong(48);
+            statsCount = getLong(56);
+            statsOffset = getLong(64);
+            if (indexOffset + indexCount * INDEX_ENTRY_SIZE > size ||
+                    statsOffset + statsCount * STATS_ENTRY_SIZE > size) {
+                throw new IOException("База партий обрезана: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Возвращает число записей индекса позиций.
+     */
+    public long getIndexSize() {
+        return indexCount;
+    }
+
+    /**
+     * Возвращает число записей статистики - разных пар позиции и следующего хода.
+     */
+    public long getStatsSize() {
+        return statsCount;
+    }
+
+    public int getPlyCount(int game) {
+        return getInt(gameOffset(game) + 8);
+    }
+
+    /**
+     * Возвращает результат партии в записи {@link GameRecord}, например {@link GameRecord#WHITE_WINS}.
+     */
+    public String getResult(int game) {
+        return resultText(getInt(gameOffset(game) + 12));
+    }
+
+    /**
+     * Возвращает ход партии с номером полухода ply.
+     */
+    public int getMove(int game, int ply) {
+        long gameOffset = gameOffset(game);
+        if (ply < 0 || ply >= getInt(gameOffset + 8)) {
+            throw new IndexOutOfBoundsException("Полуход " + ply + " вне партии " + game);
+        }
+        return getInt(movesOffset + (getLong(gameOffset) + ply) * MOVE_SIZE);
+    }
+
+    /**
+     * Записывает ходы партии в moves, предварительно очистив список.
+     */
+    public void getMoves(int game, MoveList moves) {
+        long gameOffset = gameOffset(game);
+        long position = movesOffset + getLong(gameOffset) * MOVE_SIZE;
+        int plies = getInt(gameOffset + 8);
+
+        moves.clear();
+        for (int i = 0; i < plies; i++) {
+            moves.add(getInt(position + (long) i * MOVE_SIZE));
+        }
+    }
+
+    /**
+     * Возвращает число партий, в которых встретилась позиция с ключом Зобриста key.
+     */
+    public int countGames(long key) {
+        int games = 0;
+        for (long i = lowerBound(statsOffset, statsCount, STATS_ENTRY_SIZE, key); i < statsCount; i++) {
+            long offset = statsOffset + i * STATS_ENTRY_SIZE;
+            if (getLong(offset) != key) {
+                break;
+            }
+            for (int result = 0; result < RESULT_COUNT; result++) {
+                games += getInt(offset + 12 + result * 4);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Возвращает номера не больше limit партий, в которых встретилась позиция, по возрастанию.
+     */
+    public int[] findGames(long key, int limit) {
+        long from = lowerBound(indexOffset, indexCount, INDEX_ENTRY_SIZE, key);
+        int count = (int) Math.min(upperBound(indexOffset, indexCount, INDEX_ENTRY_SIZE, key) - from, limit);
+
+        int[] games = new int[count];
+        for (int i = 0; i < count; i++) {
+            games[i] = getInt(indexOffset + (from + i) * INDEX_ENTRY_SIZE + 8);
+        }
+        return games;
+    }
+
+    /**
+     * Собирает результаты партий, прошедших через позицию, всего и по каждому следующему ходу.
+     */
+    public PositionStats getPositionStats(long key) {
+        PositionStats stats = new PositionStats();
+        for (long i = lowerBound(statsOffset, statsCount, STATS_ENTRY_SIZE, key); i < statsCount; i++) {
+            long offset = statsOffset + i * STATS_ENTRY_SIZE;
+            if (getLong(offset) != key) {
+                break;
+            }
+            int move = getInt(offset + 8);
+            for (int result = 0; result < RESULT_COUNT; result++) {
+                stats.add(move, result, getInt(offset + 12 + result * 4));
+            }
+        }
+        stats.sort();
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Упаковывает данные записи индекса: полуход, результат партии и следующий ход без флагов.
+     */
+    static int entryData(int ply, int result, int move) {
+        return ply << 16 | result << 14 | PackedMove.squares(move);
+    }
+
+    static int entryMove(int data) {
+        return data & 0x3FFF;
+    }
+
+    static int entryResult(int data) {
+        return data >>> 14 & 0x3;
+    }
+
+    static int resultCode(String result) {
+        return switch (result) {
+            case GameRecord.WHITE_WINS -> RESULT_WHITE_WINS;
+            case GameRecord.BLACK_WINS -> RESULT_BLACK_WINS;
+            case GameRecord.DRAW -> RESULT_DRAW;
+            case GameRecord.UNFINISHED -> RESULT_UNFINISHED;
+            default -> throw new IllegalArgumentException("Неверный результат партии: " + result);
+        };
+    }
+
+    static String resultText(int code) {
+        return switch (code) {
+            case RESULT_WHITE_WINS -> GameRecord.WHITE_WINS;
+            case RESULT_BLACK_WINS -> GameRecord.BLACK_WINS;
+            case RESULT_DRAW -> GameRecord.DRAW;
+            default -> GameRecord.UNFINISHED;
+        };
+    }
+
+    /**
+     * Возвращает номер первой записи раздела с ключом не меньше key.
+     * Раздел начинается с offset, состоит из count записей по entrySize байт с ключом в начале записи.
+     */
+    private long lowerBound(long offset, long count, int entrySize, long key) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getLong(offset + mid * entrySize) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает номер первой записи раздела с ключом больше key.
+     */
+    private long upperBound(long offset, long count, int entrySize, long key) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getLong(offset + mid * entrySize) <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long gameOffset(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("Нет партии " + game);
+        }
+        return gamesOffset + (long) game * GAME_SIZE;
+    }
+
+    private int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    private long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+}
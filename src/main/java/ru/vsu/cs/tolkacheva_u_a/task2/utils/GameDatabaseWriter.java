@@ -0,0 +1,480 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Создание базы партий {@link GameDatabase}.
+ *
+ * <p>Партии добавляются по одной и сразу пишутся во временные файлы рядом с базой,
+ * поэтому в памяти держится только часть индекса. Записи индекса копятся блоками
+ * по {@value #RUN_SIZE}, каждый блок сортируется и сбрасывается на диск, а при закрытии
+ * блоки сливаются в отсортированный индекс базы. Повторы позиции внутри партии
+ * отбрасываются при слиянии. Массивы блока растут по мере добавления партий,
+ * поэтому маленькая база не занимает памяти на полный блок.
+ *
+ * <p>Во время слияния по тем же записям считаются результаты партий для каждой пары
+ * позиции и следующего хода, они записываются отдельным разделом базы.
+ */
+public class GameDatabaseWriter implements Closeable {
+    private static final int RUN_SIZE = 1 << 22;
+    private static final int INITIAL_RUN_CAPACITY = 1 << 12;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int MOVE_SLOTS = 1 << 14;
+
+    private final Path file;
+    private final Path gamesFile;
+    private final Path movesFile;
+    private final DataOutputStream games;
+    private final DataOutputStream moves;
+    private final List<Path> runs = new ArrayList<>();
+
+    private final int runSize;
+    private long[] runKeys = new long[INITIAL_RUN_CAPACITY];
+    private long[] runValues = new long[INITIAL_RUN_CAPACITY];
+    private int runLength;
+
+    private final Board startBoard = new Board();
+    private final BitBoard replay = new BitBoard();
+    private Path indexFile;
+    private Path statsFile;
+    private int gameCount;
+    private long moveCount;
+    private boolean closed;
+
+    /**
+     * Начинает создание базы в файле file. Файл перезаписывается при {@link #close()}.
+     */
+    public GameDatabaseWriter(Path file) throws IOException {
+        this(file, RUN_SIZE);
+    }
+
+    /**
+     * Начинает создание базы с блоками индекса по runSize записей.
+     * Записи одной партии всегда попадают в один блок, даже если их больше runSize.
+     */
+    GameDatabaseWriter(Path file, int runSize) throws IOException {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Размер блока индекса должен быть положительным");
+        }
+        this.file = file;
+        this.runSize = runSize;
+        Path directory = file.toAbsolutePath().getParent();
+        gamesFile = Files.createTempFile(directory, "games", ".tmp");
+        movesFile = Files.createTempFile(directory, "moves", ".tmp");
+        games = open(gamesFile);
+        moves = open(movesFile);
+    }
+
+    /**
+     * Добавляет партию из начальной расстановки и возвращает ее номер в базе.
+     * Позиции партии заносятся в индекс, включая начальную и конечную.
+     * @throws IllegalArgumentException если ход делает не фигура стороны, чья очередь хода,
+     *                                  или партия длиннее {@value GameDatabase#MAX_PLIES} полуходов
+     */
+    public int addGame(MoveList gameMoves, String result) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("База уже закрыта");
+        }
+        if (gameMoves.size() > GameDatabase.MAX_PLIES) {
+            throw new IllegalArgumentException("Партия длиннее " + GameDatabase.MAX_PLIES + " полуходов");
+        }
+        if (gameCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Слишком много партий");
+        }
+
+        int resultCode = GameDatabase.resultCode(result);
+        int game = gameCount;
+        int entries = gameMoves.size() + 1;
+        if (runLength + entries > runSize) {
+            flushRun();
+        }
+        ensureRunCapacity(runLength + entries);
+
+        // При ошибке записи этой партии убираются из блока, чтобы не попасть к следующей партии
+        int runStart = runLength;
+        replay.copyFrom(startBoard);
+        for (int ply = 0; ply < gameMoves.size(); ply++) {
+            int move = gameMoves.get(ply);
+            int from = PackedMove.from(move);
+            if (replay.getPieceTypeAt(from) == null ||
+                    replay.getPieceColorAt(from) != replay.getCurrentPlayer()) {
+                runLength = runStart;
+                throw new IllegalArgumentException("Недопустимый ход " + GlinskiNotation.moveName(move) +
+                        " на полуходе " + (ply + 1));
+            }
+
+            addEntry(replay.getZobristKey(), game, GameDatabase.entryData(ply, resultCode, move));
+            replay.makeMove(from, PackedMove.to(move));
+        }
+        addEntry(replay.getZobristKey(), game, GameDatabase.entryData(gameMoves.size(), resultCode, PackedMove.NONE));
+
+        games.writeLong(moveCount);
+        games.writeInt(gameMoves.size());
+        games.writeInt(resultCode);
+        for (int ply = 0; ply < gameMoves.size(); ply++) {
+            moves.writeInt(gameMoves.get(ply));
+        }
+        moveCount += gameMoves.size();
+        gameCount++;
+        return game;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Сливает индекс и записывает базу в файл. Временные файлы удаляются.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            games.close();
+            moves.close();
+            flushRun();
+
+            long gamesOffset = GameDatabase.HEADER_SIZE;
+            long movesOffset = gamesOffset + (long) gameCount * GameDatabase.GAME_SIZE;
+            long movesEnd = movesOffset + moveCount * GameDatabase.MOVE_SIZE;
+            long indexOffset = align(movesEnd, GameDatabase.INDEX_ENTRY_SIZE);
+
+            Path directory = file.toAbsolutePath().getParent();
+            indexFile = Files.createTempFile(directory, "index", ".tmp");
+            statsFile = Files.createTempFile(directory, "stats", ".tmp");
+            long indexCount;
+            MoveStatsWriter stats;
+            try (DataOutputStream index = open(indexFile);
+                 DataOutputStream statsOut = open(statsFile)) {
+                stats = new MoveStatsWriter(statsOut);
+                indexCount = mergeRuns(index, stats);
+                stats.flush();
+            }
+            long indexEnd = indexOffset + indexCount * GameDatabase.INDEX_ENTRY_SIZE;
+            long statsOffset = align(indexEnd, GameDatabase.STATS_ENTRY_SIZE);
+
+            try (DataOutputStream out = open(file)) {
+                out.writeInt(GameDatabase.MAGIC);
+                out.writeInt(GameDatabase.VERSION);
+                out.writeLong(gameCount);
+                out.writeLong(moveCount);
+                out.writeLong(indexCount);
+                out.writeLong(gamesOffset);
+                out.writeLong(movesOffset);
+                out.writeLong(indexOffset);
+                out.writeLong(stats.count);
+                out.writeLong(statsOffset);
+                out.write(new byte[GameDatabase.HEADER_SIZE - out.size()]);
+
+                Files.copy(gamesFile, out);
+                Files.copy(movesFile, out);
+                out.write(new byte[(int) (indexOffset - movesEnd)]);
+                Files.copy(indexFile, out);
+                out.write(new byte[(int) (statsOffset - indexEnd)]);
+                Files.copy(statsFile, out);
+            }
+        } finally {
+            Files.deleteIfExists(gamesFile);
+            Files.deleteIfExists(movesFile);
+            if (indexFile != null) {
+                Files.deleteIfExists(indexFile);
+            }
+            if (statsFile != null) {
+                Files.deleteIfExists(statsFile);
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Увеличивает массивы блока так, чтобы в них помещалось capacity записей.
+     */
+    private void ensureRunCapacity(int capacity) {
+        if (capacity <= runKeys.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, (int) Math.min((long) runKeys.length * 2, runSize));
+        runKeys = Arrays.copyOf(runKeys, newCapacity);
+        runValues = Arrays.copyOf(runValues, newCapacity);
+    }
+
+    private void addEntry(long key, int game, int data) {
+        runKeys[runLength] = key;
+        // Номер партии в старших битах: при равных ключах записи идут по партиям и полуходам
+        runValues[runLength] = (long) game << 32 | data & 0xFFFFFFFFL;
+        runLength++;
+    }
+
+    /**
+     * Сортирует накопленный блок индекса и записывает его во временный файл.
+     */
+    private void flushRun() throws IOException {
+        if (runLength == 0) {
+            return;
+        }
+
+        sort(0, runLength - 1);
+        Path run = Files.createTempFile(file.toAbsolutePath().getParent(), "run", ".tmp");
+        runs.add(run);
+        try (DataOutputStream out = open(run)) {
+            for (int i = 0; i < runLength; i++) {
+                out.writeLong(runKeys[i]);
+                out.writeLong(runValues[i]);
+            }
+        }
+        runLength = 0;
+    }
+
+    /**
+     * Сливает отсортированные блоки в индекс, оставляя для каждой позиции
+     * по одной записи на партию, и передает эти записи в stats. Возвращает число записей индекса.
+     */
+    private long mergeRuns(DataOutputStream index, MoveStatsWriter stats) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>();
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            long count = 0;
+            long lastKey = 0;
+            int lastGame = -1;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                int game = (int) (reader.value >>> 32);
+                if (game != lastGame || reader.key != lastKey) {
+                    index.writeLong(reader.key);
+                    index.writeInt(game);
+                    index.writeInt((int) reader.value);
+                    stats.add(reader.key, (int) reader.value);
+                    lastKey = reader.key;
+                    lastGame = game;
+                    count++;
+                }
+
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            return count;
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Быстрая сортировка блока по ключу, затем по значению.
+     */
+    private void sort(int low, int high) {
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, low) < 0) {
+                swap(mid, low);
+            }
+            if (compare(high, low) < 0) {
+                swap(high, low);
+            }
+            if (compare(high, mid) < 0) {
+                swap(high, mid);
+            }
+            long pivotKey = runKeys[mid];
+            long pivotValue = runValues[mid];
+
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(runKeys[i], runValues[i], pivotKey, pivotValue) < 0) {
+                    i++;
+                }
+                while (compare(runKeys[j], runValues[j], pivotKey, pivotValue) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Рекурсия по меньшей части, чтобы глубина стека оставалась логарифмической
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+
+        for (int i = low + 1; i <= high; i++) {
+            long key = runKeys[i];
+            long value = runValues[i];
+            int j = i - 1;
+            while (j >= low && compare(runKeys[j], runValues[j], key, value) > 0) {
+                runKeys[j + 1] = runKeys[j];
+                runValues[j + 1] = runValues[j];
+                j--;
+            }
+            runKeys[j + 1] = key;
+            runValues[j + 1] = value;
+        }
+    }
+
+    private int compare(int i, int j) {
+        return compare(runKeys[i], runValues[i], runKeys[j], runValues[j]);
+    }
+
+    private static int compare(long key1, long value1, long key2, long value2) {
+        int byKey = Long.compare(key1, key2);
+        return byKey != 0 ? byKey : Long.compare(value1, value2);
+    }
+
+    private void swap(int i, int j) {
+        long key = runKeys[i];
+        runKeys[i] = runKeys[j];
+        runKeys[j] = key;
+        long value = runValues[i];
+        runValues[i] = runValues[j];
+        runValues[j] = value;
+    }
+
+    private static long align(long offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    private static DataOutputStream open(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * Подсчет результатов партий по следующему ходу при слиянии индекса.
+     * Записи приходят отсортированными по позиции, поэтому в памяти держатся ходы только одной позиции.
+     * Для позиции пишется по записи на каждый следующий ход по возрастанию хода,
+     * ход {@link ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove#NONE} - партия закончилась в этой позиции.
+     */
+    private static final class MoveStatsWriter {
+        private final DataOutputStream out;
+        private final int[] slots = new int[MOVE_SLOTS];
+        private int[] moves = new int[16];
+        private int[] counts = new int[16 * GameDatabase.RESULT_COUNT];
+        private int moveCount;
+        private long key;
+        private long count;
+
+        MoveStatsWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Учитывает запись индекса позиции key с упакованными данными data.
+         */
+        void add(long key, int data) throws IOException {
+            if (moveCount > 0 && key != this.key) {
+                flush();
+            }
+            this.key = key;
+
+            int move = GameDatabase.entryMove(data);
+            int slot = slots[move] - 1;
+            if (slot < 0) {
+                if (moveCount == moves.length) {
+                    moves = Arrays.copyOf(moves, moveCount * 2);
+                    counts = Arrays.copyOf(counts, moveCount * 2 * GameDatabase.RESULT_COUNT);
+                }
+                slot = moveCount++;
+                moves[slot] = move;
+                Arrays.fill(counts, slot * GameDatabase.RESULT_COUNT, (slot + 1) * GameDatabase.RESULT_COUNT, 0);
+                slots[move] = slot + 1;
+            }
+            counts[slot * GameDatabase.RESULT_COUNT + GameDatabase.entryResult(data)]++;
+        }
+
+        /**
+         * Записывает ходы накопленной позиции.
+         */
+        void flush() throws IOException {
+            // Номера ячеек счетчиков не зависят от порядка ходов, поэтому ходы можно сортировать на месте
+            Arrays.sort(moves, 0, moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                int move = moves[i];
+                int slot = slots[move] - 1;
+                out.writeLong(key);
+                out.writeInt(move);
+                for (int result = 0; result < GameDatabase.RESULT_COUNT; result++) {
+                    out.writeInt(counts[slot * GameDatabase.RESULT_COUNT + result]);
+                }
+                out.writeInt(0);
+                slots[move] = 0;
+                count++;
+            }
+            moveCount = 0;
+        }
+    }
+
+    /**
+     * Чтение отсортированного блока индекса при слиянии.
+     */
+    private static final class RunReader implements Comparable<RunReader>, Closeable {
+        private final DataInputStream in;
+        private long key;
+        private long value;
+
+        RunReader(Path run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+        }
+
+        /**
+         * Читает следующую запись блока. Возвращает false в конце блока.
+         */
+        boolean next() throws IOException {
+            try {
+                key = in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            value = in.readLong();
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            return compare(key, value, other.key, other.value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Записанная партия: теги, ходы и результат.
+ * Ходы хранятся упакованными в {@link ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove}
+ * с флагами взятия и превращения, как они указаны в записи.
+ */
+public class GameRecord {
+    /** Результат: победа белых. */
+    public static final String WHITE_WINS = "1-0";
+    /** Результат: победа черных. */
+    public static final String BLACK_WINS = "0-1";
+    /** Результат: ничья. */
+    public static final String DRAW = "1/2-1/2";
+    /** Результат: партия не завершена. */
+    public static final String UNFINISHED = "*";
+
+    /** Тег с записью начальной позиции ({@link PositionNotation}), если партия начата не с начальной расстановки. */
+    public static final String POSITION_TAG = "Position";
+
+    private final Map<String, String> tags;
+    private final MoveList moves;
+    private final String result;
+
+    public GameRecord(Map<String, String> tags, MoveList moves, String result) {
+        this.tags = tags;
+        this.moves = moves;
+        this.result = result;
+    }
+
+    /**
+     * Возвращает значение тега или null, если тега нет.
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    public MoveList getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Возвращает запись начальной позиции партии.
+     */
+    public String getStartPosition() {
+        return tags.getOrDefault(POSITION_TAG, PositionNotation.START_POSITION);
+    }
+
+    /**
+     * Создает доску в начальной позиции партии.
+     */
+    public Board createStartBoard() {
+        return PositionNotation.parse(getStartPosition());
+    }
+
+    /**
+     * Проверяет, является ли строка результатом партии.
+     */
+    public static boolean isResult(String token) {
+        return token.equals(WHITE_WINS) || token.equals(BLACK_WINS) ||
+                token.equals(DRAW) || token.equals(UNFINISHED);
+    }
+}
@@ -0,0 +1,310 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Потоковое чтение партий, записанных {@link GameRecordWriter}.
+ * Файл читается через канал блоками по {@value #BUFFER_SIZE} байт и разбирается
+ * прямо в байтах, поэтому файлы любого размера читаются без загрузки в память,
+ * а ходы не создают строк. Ходы не проверяются по правилам: для этого партию
+ * нужно повторить на доске из {@link GameRecord#createStartBoard()}.
+ */
+public class GameRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private long lineNumber;
+    private boolean endOfInput;
+    private boolean lineReturned;
+
+    public GameRecordReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    public GameRecordReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * Читает следующую партию или возвращает null, если партий больше нет.
+     * Партия, оборванная концом файла или тегами следующей партии, возвращается
+     * с результатом {@link GameRecord#UNFINISHED}.
+     * @throws IOException при ошибке чтения или неверной записи
+     */
+    public GameRecord next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        MoveList moves = new MoveList();
+        boolean started = false;
+
+        while (readLine()) {
+            if (isBlank()) {
+                continue;
+            }
+
+            if (line[0] == '[') {
+                if (!moves.isEmpty()) {
+                    // Партия оборвана без результата, тег относится к следующей
+                    lineReturned = true;
+                    return new GameRecord(tags, moves, GameRecord.UNFINISHED);
+                }
+                parseTag(tags);
+                started = true;
+                continue;
+            }
+
+            started = true;
+            String result = parseMoves(moves);
+            if (result != null) {
+                return new GameRecord(tags, moves, result);
+            }
+        }
+
+        return started ? new GameRecord(tags, moves, GameRecord.UNFINISHED) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Читает строку в буфер line без символов конца строки. Возвращает false в конце файла.
+     */
+    private boolean readLine() throws IOException {
+        if (lineReturned) {
+            lineReturned = false;
+            return true;
+        }
+
+        lineLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfInput || !fillBuffer()) {
+                    endOfInput = true;
+                    if (lineLength > 0) {
+                        lineNumber++;
+                        return true;
+                    }
+                    return false;
+                }
+            }
+
+            byte[] data = buffer.array();
+            int start = buffer.position();
+            int end = buffer.limit();
+            int i = start;
+            while (i < end && data[i] != '\n') {
+                i++;
+            }
+
+            append(data, start, i - start);
+            if (i < end) {
+                buffer.position(i + 1);
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                lineNumber++;
+                return true;
+            }
+            buffer.position(end);
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private void append(byte[] data, int offset, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(data, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] != ' ' && line[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Разбирает строку тега вида [Name "value"].
+     */
+    private void parseTag(Map<String, String> tags) throws IOException {
+        int i = 1;
+        int nameStart = i;
+        while (i < lineLength && line[i] != ' ') {
+            i++;
+        }
+        String name = new String(line, nameStart, i - nameStart, StandardCharsets.UTF_8);
+        while (i < lineLength && line[i] == ' ') {
+            i++;
+        }
+        if (name.isEmpty() || i >= lineLength || line[i] != '"') {
+            throw formatError("неверный тег");
+        }
+
+        byte[] value = new byte[lineLength];
+        int valueLength = 0;
+        for (i++; i < lineLength && line[i] != '"'; i++) {
+            if (line[i] == '\\' && i + 1 < lineLength) {
+                i++;
+            }
+            value[valueLength++] = line[i];
+        }
+        if (i >= lineLength) {
+            throw formatError("незакрытое значение тега");
+        }
+        tags.put(name, new String(value, 0, valueLength, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает строку ходов. Возвращает результат партии, если он встретился в строке, иначе null.
+     */
+    private String parseMoves(MoveList moves) throws IOException {
+        int i = 0;
+        while (i < lineLength) {
+            while (i < lineLength && (line[i] == ' ' || line[i] == '\t')) {
+                i++;
+            }
+            int start = i;
+            while (i < lineLength && line[i] != ' ' && line[i] != '\t') {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+
+            String result = resultOf(start, i);
+            if (result != null) {
+                return result;
+            }
+            if (line[start] >= '0' && line[start] <= '9') {
+                // Номер хода: "12." или "12..."
+                continue;
+            }
+            moves.add(parseMove(start, i));
+        }
+        return null;
+    }
+
+    private String resultOf(int start, int end) {
+        int length = end - start;
+        if (length == 1 && line[start] == '*') {
+            return GameRecord.UNFINISHED;
+        }
+        if (length == 3 && line[start + 1] == '-') {
+            if (line[start] == '1' && line[start + 2] == '0') {
+                return GameRecord.WHITE_WINS;
+            }
+            if (line[start] == '0' && line[start + 2] == '1') {
+                return GameRecord.BLACK_WINS;
+            }
+        }
+        if (length == 7 && new String(line, start, length, StandardCharsets.US_ASCII).equals(GameRecord.DRAW)) {
+            return GameRecord.DRAW;
+        }
+        return null;
+    }
+
+    /**
+     * Разбирает ход вида [фигура]откуда(-|x)куда[=Q][+|#].
+     */
+    private int parseMove(int start, int end) throws IOException {
+        int i = start;
+        if (line[i] >= 'A' && line[i] <= 'Z') {
+            if (PieceType.fromSymbol((char) line[i]) == null) {
+                throw formatError("неизвестная фигура в ходе " + token(start, end));
+            }
+            i++;
+        }
+
+        int from = parseCell(i, end);
+        i = skipCell(i, end);
+        if (i >= end || (line[i] != '-' && line[i] != 'x')) {
+            throw formatError("неверный ход " + token(start, end));
+        }
+        int flags = line[i] == 'x' ? PackedMove.CAPTURE : 0;
+        i++;
+
+        int to = parseCell(i, end);
+        i = skipCell(i, end);
+
+        PieceType promotion = null;
+        if (i < end && line[i] == '=') {
+            promotion = i + 1 < end ? PieceType.fromSymbol((char) line[i + 1]) : null;
+            if (promotion == null) {
+                throw formatError("неверное превращение в ходе " + token(start, end));
+            }
+            i += 2;
+        }
+        while (i < end && (line[i] == '+' || line[i] == '#')) {
+            i++;
+        }
+        if (from < 0 || to < 0 || i != end) {
+            throw formatError("неверный ход " + token(start, end));
+        }
+
+        return PackedMove.of(from, to, promotion, flags);
+    }
+
+    /**
+     * Возвращает индекс поля, записанного с позиции i, или -1.
+     */
+    private int parseCell(int i, int end) {
+        if (i >= end) {
+            return -1;
+        }
+        int file = GlinskiNotation.fileIndex((char) line[i]);
+        int rank = 0;
+        int j = i + 1;
+        while (j < end && line[j] >= '0' && line[j] <= '9') {
+            rank = Math.min(rank * 10 + (line[j] - '0'), GlinskiNotation.RANK_COUNT + 1);
+            j++;
+        }
+        return j == i + 1 ? -1 : GlinskiNotation.cellIndex(file, rank);
+    }
+
+    private int skipCell(int i, int end) {
+        int j = Math.min(i + 1, end);
+        while (j < end && line[j] >= '0' && line[j] <= '9') {
+            j++;
+        }
+        return j;
+    }
+
+    private String token(int start, int end) {
+        return new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private IOException formatError(String message) {
+        return new IOException("Строка " + lineNumber + ": " + message);
+    }
+}
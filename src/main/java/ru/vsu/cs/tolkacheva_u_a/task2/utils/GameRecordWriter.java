@@ -0,0 +1,191 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Запись партий в текстовый файл в духе PGN. Файл только дополняется.
+ *
+ * <p>Партия - это строки тегов вида {@code [Name "value"]}, пустая строка, ходы с номерами
+ * в записи {@link GlinskiNotation#moveText} ("1. Nd1-e3 g7-g6 2. ...") и результат,
+ * после которого идет пустая строка. Ходы можно писать по одному по мере игры
+ * ({@link #beginGame}, {@link #writeMove}, {@link #endGame}) или всей партией сразу
+ * ({@link #writeGame}). Все методы синхронизированы, поэтому один файл могут
+ * дополнять несколько потоков, если каждый пишет партии целиком через writeGame.
+ */
+public class GameRecordWriter implements Closeable {
+    private static final int LINE_LENGTH = 80;
+
+    private final BufferedWriter out;
+    private final boolean flushEachMove;
+    private final Board startBoard = new Board();
+    private final BitBoard replay = new BitBoard();
+
+    private boolean inGame;
+    private boolean whiteToMove;
+    private int moveNumber;
+    private int column;
+
+    /**
+     * Открывает файл для дополнения, создавая его при необходимости.
+     * @param flushEachMove сбрасывать ли каждый ход на диск, чтобы запись не терялась при аварийном выходе
+     */
+    public GameRecordWriter(Path file, boolean flushEachMove) throws IOException {
+        boolean endsWithNewLine = endsWithNewLine(file);
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.flushEachMove = flushEachMove;
+        if (!endsWithNewLine) {
+            // Прошлая запись оборвалась посреди строки
+            out.newLine();
+        }
+    }
+
+    /**
+     * Начинает партию из позиции start: пишет теги и, если позиция не начальная,
+     * тег {@value GameRecord#POSITION_TAG}.
+     */
+    public synchronized void beginGame(Map<String, String> tags, Board start) throws IOException {
+        if (inGame) {
+            throw new IllegalStateException("Предыдущая партия не завершена");
+        }
+
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            writeTag(tag.getKey(), tag.getValue());
+        }
+        String position = PositionNotation.format(start);
+        if (!position.equals(PositionNotation.START_POSITION)) {
+            writeTag(GameRecord.POSITION_TAG, position);
+        }
+        out.newLine();
+
+        inGame = true;
+        whiteToMove = start.getCurrentPlayer() == PlayerColor.WHITE;
+        moveNumber = start.getFullmoveNumber();
+        column = 0;
+        if (!whiteToMove) {
+            writeToken(moveNumber + "...");
+        }
+        if (flushEachMove) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Дописывает ход текущей партии. Ход упакован в {@link PackedMove}
+     * с флагами взятия и превращения, piece - тип фигуры, которая ходит.
+     */
+    public synchronized void writeMove(PieceType piece, int move) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("Партия не начата");
+        }
+
+        if (whiteToMove) {
+            writeToken(moveNumber + ".");
+        } else {
+            moveNumber++;
+        }
+        writeToken(GlinskiNotation.moveText(piece, move));
+        whiteToMove = !whiteToMove;
+
+        if (flushEachMove) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Завершает текущую партию результатом, например {@link GameRecord#WHITE_WINS}.
+     */
+    public synchronized void endGame(String result) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("Партия не начата");
+        }
+        if (!GameRecord.isResult(result)) {
+            throw new IllegalArgumentException("Неверный результат партии: " + result);
+        }
+
+        writeToken(result);
+        out.newLine();
+        out.newLine();
+        inGame = false;
+        out.flush();
+    }
+
+    /**
+     * Записывает целиком партию из начальной расстановки.
+     * Типы фигур для записи ходов восстанавливаются повтором партии на битовой доске.
+     */
+    public synchronized void writeGame(Map<String, String> tags, MoveList moves, String result) throws IOException {
+        replay.copyFrom(startBoard);
+        beginGame(tags, startBoard);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            writeMove(replay.getPieceTypeAt(PackedMove.from(move)), move);
+            replay.makeMove(PackedMove.from(move), PackedMove.to(move));
+        }
+        endGame(result);
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private static boolean endsWithNewLine(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]");
+        out.newLine();
+    }
+
+    /**
+     * Пишет слово ходов, перенося строку, если она становится длиннее {@value #LINE_LENGTH} символов.
+     */
+    private void writeToken(String token) throws IOException {
+        if (column > 0 && column + 1 + token.length() > LINE_LENGTH) {
+            out.newLine();
+            column = 0;
+        }
+        if (column > 0) {
+            out.write(' ');
+            column++;
+        }
+        out.write(token);
+        column += token.length();
+    }
+}
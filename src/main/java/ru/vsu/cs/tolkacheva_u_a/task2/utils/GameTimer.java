@@ -12,9 +12,9 @@ public class GameTimer {
     private static final int MILLIS_PER_MINUTE = 60000;
 
     private Timer timer;
-    private long startTime;
-    private long elapsedTime;
-    private boolean isRunning;
+    private volatile long startTime;
+    private volatile long elapsedTime;
+    private volatile boolean isRunning;
     private TimerCallback callback;
 
     /**
@@ -87,6 +87,14 @@ public class GameTimer {
         });
     }
 
+    /**
+     * Возвращает оставшееся время партии в миллисекундах.
+     */
+    public long getRemainingMillis() {
+        long elapsed = isRunning ? System.currentTimeMillis() - startTime : elapsedTime;
+        return Math.max(0, (long) GAME_DURATION_MINUTES * MILLIS_PER_MINUTE - elapsed);
+    }
+
     /**
      * Останавливает таймер.
      */
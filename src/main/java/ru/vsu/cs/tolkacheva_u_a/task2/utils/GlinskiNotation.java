@@ -0,0 +1,120 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+
+/**
+ * Названия полей в нотации Глинского: вертикаль a-l (без j) и горизонталь 1-11.
+ * Вертикаль совпадает с координатой q, горизонтали отсчитываются от нижнего
+ * края вертикали со стороны белых: f1 - поле (0, 5), f11 - поле (0, -5).
+ */
+public final class GlinskiNotation {
+    private static final String FILES = "abcdefghikl";
+
+    /** Число вертикалей и горизонталей доски. */
+    public static final int FILE_COUNT = FILES.length();
+    public static final int RANK_COUNT = 2 * HexGrid.RADIUS + 1;
+
+    private GlinskiNotation() {
+    }
+
+    /**
+     * Возвращает название поля с индексом cell, например "f5".
+     */
+    public static String cellName(int cell) {
+        return cellName(HexGrid.cellAt(cell));
+    }
+
+    /**
+     * Возвращает название поля, например "f5".
+     */
+    public static String cellName(Hex hex) {
+        int q = hex.getQ();
+        return FILES.charAt(q + HexGrid.RADIUS) + Integer.toString(topRank(q) - hex.getR() + 1);
+    }
+
+    /**
+     * Возвращает индекс поля по названию.
+     * @throws IllegalArgumentException если такого поля нет на доске
+     */
+    public static int parseCell(String name) {
+        String trimmed = name.trim().toLowerCase();
+        int file = trimmed.isEmpty() ? -1 : fileIndex(trimmed.charAt(0));
+        if (file < 0) {
+            throw new IllegalArgumentException("Неверное поле: " + name);
+        }
+
+        int rank;
+        try {
+            rank = Integer.parseInt(trimmed.substring(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Неверное поле: " + name);
+        }
+
+        int cell = cellIndex(file, rank);
+        if (cell < 0) {
+            throw new IllegalArgumentException("Неверное поле: " + name);
+        }
+        return cell;
+    }
+
+    /**
+     * Возвращает индекс поля на вертикали file (0 - a, 10 - l) и горизонтали rank (1-11)
+     * или -1, если такого поля нет на доске.
+     */
+    public static int cellIndex(int file, int rank) {
+        if (file < 0 || file >= FILE_COUNT || rank < 1) {
+            return -1;
+        }
+        int q = file - HexGrid.RADIUS;
+        return HexGrid.indexOf(q, topRank(q) - rank + 1);
+    }
+
+    /**
+     * Возвращает запись хода вида "f5-f6".
+     */
+    public static String moveName(int from, int to) {
+        return cellName(from) + "-" + cellName(to);
+    }
+
+    /**
+     * Возвращает запись хода, упакованного в {@link PackedMove}.
+     */
+    public static String moveName(int move) {
+        return moveName(PackedMove.from(move), PackedMove.to(move));
+    }
+
+    /**
+     * Возвращает подробную запись хода для записи партии: буква фигуры (у пешки нет),
+     * поле откуда, "-" или "x" при взятии, поле куда и "=Q" при превращении, например "Nd1xe3".
+     */
+    public static String moveText(PieceType piece, int move) {
+        StringBuilder sb = new StringBuilder(10);
+        if (piece != PieceType.PAWN) {
+            sb.append(piece.getSymbol());
+        }
+        sb.append(cellName(PackedMove.from(move)))
+                .append(PackedMove.isCapture(move) ? 'x' : '-')
+                .append(cellName(PackedMove.to(move)));
+        if (PackedMove.isPromotion(move)) {
+            sb.append('=').append(PackedMove.promotion(move).getSymbol());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Возвращает номер вертикали (0 - a, 10 - l) по букве или -1.
+     */
+    public static int fileIndex(char letter) {
+        return FILES.indexOf(Character.toLowerCase(letter));
+    }
+
+    /**
+     * Наибольшая координата r на вертикали q - поле первой горизонтали.
+     */
+    private static int topRank(int q) {
+        return Math.min(HexGrid.RADIUS, HexGrid.RADIUS - q);
+    }
+}
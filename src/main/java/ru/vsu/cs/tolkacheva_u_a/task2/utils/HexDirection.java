@@ -1,6 +1,7 @@
 package ru.vsu.cs.tolkacheva_u_a.task2.utils;
 
 import ru.vsu.cs.tolkacheva_u_a.task2.model.Hex;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
 import java.util.Arrays;
 import java.util.List;
 
@@ -53,6 +54,19 @@ public class HexDirection {
             new Hex(1, -2, 1),    new Hex(-1, -1, 2)
     };
 
+    private static final Hex WHITE_FORWARD = new Hex(0, -1, 1);
+    private static final Hex BLACK_FORWARD = new Hex(0, 1, -1);
+
+    private static final List<Hex> WHITE_PAWN_CAPTURES = Arrays.asList(
+            new Hex(1, -1, 0),
+            new Hex(-1, 0, 1)
+    );
+
+    private static final List<Hex> BLACK_PAWN_CAPTURES = Arrays.asList(
+            new Hex(1, 0, -1),
+            new Hex(-1, 1, 0)
+    );
+
     /**
      * Возвращает список всех базовых направлений для белых фигур.
      */
@@ -120,43 +134,38 @@ public class HexDirection {
      * Возвращает направление "вперед" для указанного цвета.
      */
     public static Hex getForwardDirection(boolean isWhite) {
-        return isWhite ? new Hex(0, -1, 1) : new Hex(0, 1, -1);
+        return isWhite ? WHITE_FORWARD : BLACK_FORWARD;
     }
 
     /**
      * Возвращает направления взятия для пешки указанного цвета.
      */
     public static List<Hex> getPawnCaptureDirections(boolean isWhite) {
-        if (isWhite) {
-            return Arrays.asList(
-                    new Hex(1, -1, 0),
-                    new Hex(-1, 0, 1)
-            );
-        } else {
-            return Arrays.asList(
-                    new Hex(1, 0, -1),
-                    new Hex(-1, 1, 0)
-            );
-        }
+        return isWhite ? WHITE_PAWN_CAPTURES : BLACK_PAWN_CAPTURES;
     }
 
     /**
      * Возвращает направление от одного поля к другому.
+     * Для полей доски берется из таблицы {@link HexGrid} без создания объектов.
      */
     public static Hex getDirectionBetween(Hex from, Hex to) {
-        Hex diff = new Hex(
-                to.getQ() - from.getQ(),
-                to.getR() - from.getR(),
-                to.getS() - from.getS()
-        );
+        int fromIndex = HexGrid.indexOf(from);
+        int toIndex = HexGrid.indexOf(to);
+        if (fromIndex >= 0 && toIndex >= 0) {
+            return HexGrid.directionBetween(fromIndex, toIndex);
+        }
+
+        int dq = to.getQ() - from.getQ();
+        int dr = to.getR() - from.getR();
+        int ds = to.getS() - from.getS();
 
-        int gcd = gcd3(Math.abs(diff.getQ()), Math.abs(diff.getR()), Math.abs(diff.getS()));
+        int gcd = gcd3(Math.abs(dq), Math.abs(dr), Math.abs(ds));
 
         if (gcd == 0) {
             return null;
         }
 
-        return new Hex(diff.getQ() / gcd, diff.getR() / gcd, diff.getS() / gcd);
+        return new Hex(dq / gcd, dr / gcd, ds / gcd);
     }
 
     /**
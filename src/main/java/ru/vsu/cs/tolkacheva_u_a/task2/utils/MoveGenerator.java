@@ -0,0 +1,247 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.*;
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Генератор ходов по таблицам лучей и прыжков из {@link HexGrid} и таблицам шагов пешек.
+ * Сначала строит только ходы-кандидаты от поля фигуры, затем отбрасывает те,
+ * после которых свой король остается под атакой.
+ * Наличие допустимых ходов проверяется на битовой копии доски {@link BitBoard},
+ * которая строит допустимые ходы по связкам и шахам без пробного выполнения.
+ */
+public class MoveGenerator {
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /** Поле на шаг вперед для пешки: [цвет][поле] -> индекс или -1. */
+    static final int[][] PAWN_FORWARD = {
+            buildSteps(HexDirection.getForwardDirection(true)),
+            buildSteps(HexDirection.getForwardDirection(false))
+    };
+    /** Поля взятия для пешки: [цвет][поле] -> индексы. */
+    static final int[][][] PAWN_CAPTURES = {
+            buildLeaps(HexDirection.getPawnCaptureDirections(true)),
+            buildLeaps(HexDirection.getPawnCaptureDirections(false))
+    };
+
+    private final Board board;
+    private final MoveValidator moveValidator;
+    private final MoveList scratch;
+    private final BitBoard position;
+
+    public MoveGenerator(Board board) {
+        this(board, new MoveValidator(board));
+    }
+
+    MoveGenerator(Board board, MoveValidator moveValidator) {
+        this.board = board;
+        this.moveValidator = moveValidator;
+        this.scratch = new MoveList();
+        this.position = new BitBoard();
+    }
+
+    /**
+     * Добавляет в список все допустимые ходы игрока указанного цвета.
+     */
+    public void generateLegalMoves(PlayerColor color, MoveList moves) {
+        if (color != board.getCurrentPlayer()) {
+            return;
+        }
+
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Piece piece = board.getPieceAt(cell);
+            if (piece != null && piece.getColor() == color) {
+                generateLegalMoves(piece, moves);
+            }
+        }
+    }
+
+    /**
+     * Добавляет в список все допустимые ходы указанной фигуры.
+     */
+    public void generateLegalMoves(Piece piece, MoveList moves) {
+        if (piece == null || piece.isCaptured() || piece.getColor() != board.getCurrentPlayer()) {
+            return;
+        }
+
+        int start = moves.size();
+        generateCandidates(piece, moves);
+
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            if (moveValidator.isLegal(piece, HexGrid.cellAt(moves.getTo(i)))) {
+                moves.set(kept++, moves.get(i));
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Проверяет, есть ли у игрока хотя бы один допустимый ход.
+     */
+    public boolean hasLegalMoves(PlayerColor color) {
+        if (color != board.getCurrentPlayer()) {
+            return false;
+        }
+
+        position.copyFrom(board);
+        return position.hasLegalMoves();
+    }
+
+    /**
+     * Считает ходы-кандидаты всех фигур указанного цвета без проверки шаха.
+     * Очередь хода не учитывается, поэтому подходит для оценки подвижности обеих сторон.
+     */
+    public int countCandidates(PlayerColor color) {
+        int count = 0;
+        for (PieceType type : PIECE_TYPES) {
+            for (int i = 0; i < board.getPieceCount(color, type); i++) {
+                scratch.clear();
+                generateCandidates(board.getPieceAt(board.getPieceCell(color, type, i)), scratch);
+                count += scratch.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Добавляет в список ходы-кандидаты фигуры без проверки шаха своему королю.
+     */
+    public void generateCandidates(Piece piece, MoveList moves) {
+        int from = HexGrid.indexOf(piece.getPosition());
+        if (from < 0) {
+            return;
+        }
+
+        PlayerColor color = piece.getColor();
+        switch (piece.getType()) {
+            case PAWN -> addPawnMoves(piece, from, moves);
+            case ROOK -> addRayMoves(from, color, HexGrid.rookRays(from), false, moves);
+            case KNIGHT -> addLeaps(from, color, HexGrid.knightTargets(from), moves);
+            case BISHOP -> addRayMoves(from, color, HexGrid.bishopRays(from), true, moves);
+            case QUEEN -> {
+                addRayMoves(from, color, HexGrid.rookRays(from), false, moves);
+                addRayMoves(from, color, HexGrid.bishopRays(from), true, moves);
+            }
+            case KING -> addLeaps(from, color, HexGrid.kingTargets(from), moves);
+        }
+    }
+
+    /**
+     * Добавляет ходы пешки: шаг вперед, двойной шаг с начальной позиции и взятия.
+     */
+    private void addPawnMoves(Piece piece, int from, MoveList moves) {
+        boolean isWhite = piece.getColor() == PlayerColor.WHITE;
+        int side = isWhite ? WHITE : BLACK;
+
+        int forwardOne = PAWN_FORWARD[side][from];
+        if (forwardOne >= 0 && board.isEmpty(forwardOne)) {
+            addPawnMove(from, forwardOne, side, 0, moves);
+
+            int startRank = isWhite ? 5 : -5;
+            if (piece.getPosition().getR() == startRank && !piece.hasMoved()) {
+                int forwardTwo = PAWN_FORWARD[side][forwardOne];
+                if (forwardTwo >= 0 && board.isEmpty(forwardTwo)) {
+                    addPawnMove(from, forwardTwo, side, PackedMove.DOUBLE_PAWN_PUSH, moves);
+                }
+            }
+        }
+
+        for (int to : PAWN_CAPTURES[side][from]) {
+            Piece target = board.getPieceAt(to);
+            if (target != null && target.getColor() != piece.getColor()) {
+                addPawnMove(from, to, side, PackedMove.CAPTURE, moves);
+            }
+        }
+    }
+
+    /**
+     * Добавляет ход пешки, отмечая превращение в ферзя на последней горизонтали.
+     */
+    private static void addPawnMove(int from, int to, int side, int flags, MoveList moves) {
+        int promotionRank = side == WHITE ? -5 : 5;
+        PieceType promotion = HexGrid.cellAt(to).getR() == promotionRank ? PieceType.QUEEN : null;
+        moves.add(PackedMove.of(from, to, promotion, flags));
+    }
+
+    /**
+     * Добавляет ходы вдоль лучей до первой фигуры на пути.
+     * Для диагоналей учитываются только поля того же цвета, что и исходное.
+     */
+    private void addRayMoves(int from, PlayerColor color, int[][] rays, boolean sameColorOnly,
+                             MoveList moves) {
+        Hex.HexColor fromColor = HexGrid.cellAt(from).getColor();
+
+        for (int[] ray : rays) {
+            for (int to : ray) {
+                Piece target = board.getPieceAt(to);
+                boolean colorMatches = !sameColorOnly || HexGrid.cellAt(to).getColor() == fromColor;
+
+                if (colorMatches && (target == null || target.getColor() != color)) {
+                    moves.add(packMove(from, to, target));
+                }
+                if (target != null) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Добавляет прыжки на заданные поля, не занятые своими фигурами.
+     */
+    private void addLeaps(int from, PlayerColor color, int[] targets, MoveList moves) {
+        for (int to : targets) {
+            Piece target = board.getPieceAt(to);
+            if (target == null || target.getColor() != color) {
+                moves.add(packMove(from, to, target));
+            }
+        }
+    }
+
+    /**
+     * Упаковывает ход фигуры, отмечая взятие, если целевое поле занято.
+     */
+    private static int packMove(int from, int to, Piece target) {
+        int move = PackedMove.of(from, to);
+        return target == null ? move : move | PackedMove.CAPTURE;
+    }
+
+    /**
+     * Строит таблицу полей, достижимых одним прыжком на заданные смещения.
+     */
+    private static int[][] buildLeaps(List<Hex> offsets) {
+        int[][] leaps = new int[HexGrid.CELL_COUNT][];
+        int[] targets = new int[offsets.size()];
+
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            int count = 0;
+            for (Hex offset : offsets) {
+                int target = HexGrid.indexOf(HexGrid.cellAt(cell).getQ() + offset.getQ(),
+                        HexGrid.cellAt(cell).getR() + offset.getR());
+                if (target >= 0) {
+                    targets[count++] = target;
+                }
+            }
+            leaps[cell] = Arrays.copyOf(targets, count);
+        }
+
+        return leaps;
+    }
+
+    /**
+     * Строит таблицу полей на один шаг в заданном направлении.
+     */
+    private static int[] buildSteps(Hex direction) {
+        int[] steps = new int[HexGrid.CELL_COUNT];
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            steps[cell] = HexGrid.indexOf(HexGrid.cellAt(cell).getQ() + direction.getQ(),
+                    HexGrid.cellAt(cell).getR() + direction.getR());
+        }
+        return steps;
+    }
+}
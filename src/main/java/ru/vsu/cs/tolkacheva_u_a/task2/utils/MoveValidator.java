@@ -2,7 +2,6 @@ package ru.vsu.cs.tolkacheva_u_a.task2.utils;
 
 import ru.vsu.cs.tolkacheva_u_a.task2.model.*;
 import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,9 +9,29 @@ import java.util.List;
  */
 public class MoveValidator {
     private final Board board;
+    private final AttackDetector attackDetector;
+    private MoveGenerator moveGenerator;
 
     public MoveValidator(Board board) {
         this.board = board;
+        this.attackDetector = new AttackDetector(board);
+    }
+
+    /**
+     * Возвращает детектор атак, работающий с той же доской.
+     */
+    public AttackDetector getAttackDetector() {
+        return attackDetector;
+    }
+
+    /**
+     * Возвращает генератор ходов, работающий с той же доской.
+     */
+    public MoveGenerator getMoveGenerator() {
+        if (moveGenerator == null) {
+            moveGenerator = new MoveGenerator(board, this);
+        }
+        return moveGenerator;
     }
 
     public boolean isValidMove(Piece piece, Hex destination) {
@@ -46,11 +65,19 @@ public class MoveValidator {
             case KING -> isValidKingMove(piece, destination);
         };
 
-        if (isValid) {
-            isValid = !wouldMoveCauseCheck(piece, destination);
+        return isValid && isLegal(piece, destination);
+    }
+
+    /**
+     * Проверяет ход-кандидат на соблюдение правил безопасности короля:
+     * король не встает на атакованное поле, и после хода свой король не под атакой.
+     */
+    boolean isLegal(Piece piece, Hex destination) {
+        if (piece.getType() == PieceType.KING && isSquareUnderAttack(destination, piece.getColor())) {
+            return false;
         }
 
-        return isValid;
+        return !wouldMoveCauseCheck(piece, destination);
     }
 
     /**
@@ -80,9 +107,8 @@ public class MoveValidator {
         }
 
         // Взятие по диагонали
-        List<Hex> captureMoves = getPawnCaptureMoves(piece);
-        for (Hex captureMove : captureMoves) {
-            if (captureMove.equals(destination)) {
+        for (Hex captureDir : HexDirection.getPawnCaptureDirections(isWhite)) {
+            if (current.add(captureDir).equals(destination)) {
                 Piece target = board.getPieceAt(destination);
                 return target != null && target.getColor() != color;
             }
@@ -91,26 +117,6 @@ public class MoveValidator {
         return false;
     }
 
-    /**
-     * Возвращает возможные поля для взятия пешкой.
-     */
-    private List<Hex> getPawnCaptureMoves(Piece piece) {
-        List<Hex> captures = new ArrayList<>();
-        Hex current = piece.getPosition();
-        boolean isWhite = (piece.getColor() == PlayerColor.WHITE);
-
-        // Получаем направления взятия для данного цвета
-        List<Hex> captureDirs = HexDirection.getPawnCaptureDirections(isWhite);
-        for (Hex dir : captureDirs) {
-            Hex capture = current.add(dir);
-            if (board.isValidHex(capture)) {
-                captures.add(capture);
-            }
-        }
-
-        return captures;
-    }
-
     /**
      * Проверяет допустимость хода ладьи.
      */
@@ -188,13 +194,9 @@ public class MoveValidator {
     private boolean isValidKingMove(Piece piece, Hex destination) {
         Hex current = piece.getPosition();
 
-        // Король ходит на одно поле в любом направлении
-        if (current.distanceTo(destination) != 1) {
-            return false;
-        }
-
-        // Проверяем, не находится ли поле под атакой
-        return !isSquareUnderAttack(destination, piece.getColor());
+        // Король ходит на одно поле в любом направлении;
+        // атака на целевое поле проверяется в isLegal
+        return current.distanceTo(destination) == 1;
     }
 
     /**
@@ -209,8 +211,7 @@ public class MoveValidator {
         }
 
         // Проверяем, что направление допустимо для этой фигуры
-        boolean validDirection = directions.stream().anyMatch(d -> d.equals(direction));
-        if (!validDirection) {
+        if (!directions.contains(direction)) {
             return false;
         }
 
@@ -230,100 +231,52 @@ public class MoveValidator {
      * Проверяет, находится ли поле под атакой фигур противника.
      */
     public boolean isSquareUnderAttack(Hex square, PlayerColor color) {
-        PlayerColor opponentColor = (color == PlayerColor.WHITE) ? PlayerColor.BLACK : PlayerColor.WHITE;
-
-        for (Piece piece : board.getPieces()) {
-            if (piece.getColor() == opponentColor && !piece.isCaptured()) {
-                if (canAttackSquare(piece, square)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Проверяет, может ли фигура атаковать указанное поле.
-     */
-    private boolean canAttackSquare(Piece piece, Hex square) {
-        // Временная доска для проверки
-        Board tempBoard = board.copy();
-        Piece tempPiece = tempBoard.getPieceAt(piece.getPosition());
-
-        if (tempPiece == null) {
-            return false;
-        }
-
-        return new MoveValidator(tempBoard).isValidMove(tempPiece, square);
+        return attackDetector.isAttacked(square, opponentOf(color));
     }
 
     /**
      * Проверяет, оставит ли ход короля под шахом.
+     * Ход выполняется на той же доске и сразу отменяется.
      */
     private boolean wouldMoveCauseCheck(Piece piece, Hex destination) {
-        Board tempBoard = board.copy();
-        Piece tempPiece = tempBoard.getPieceAt(piece.getPosition());
-
-        if (tempPiece == null) {
+        int from = HexGrid.indexOf(piece.getPosition());
+        int to = HexGrid.indexOf(destination);
+        if (from < 0 || to < 0 || board.getPieceAt(from) != piece) {
             return true;
         }
 
-        tempBoard.movePiece(tempPiece, destination);
+        board.makeMove(from, to);
+        try {
+            int king = board.getKingCell(piece.getColor());
+            if (king < 0) {
+                return true;
+            }
 
-        Piece king = findKing(tempBoard, piece.getColor());
-        if (king == null) {
-            return true;
+            return attackDetector.isAttacked(king, opponentOf(piece.getColor()));
+        } finally {
+            board.unmakeMove();
         }
-
-        MoveValidator tempValidator = new MoveValidator(tempBoard);
-        return tempValidator.isSquareUnderAttack(king.getPosition(), piece.getColor());
     }
 
     /**
-     * Находит короля указанного цвета на доске.
+     * Возвращает цвет противника.
      */
-    private Piece findKing(Board board, PlayerColor color) {
-        return board.getPieces().stream()
-                .filter(p -> !p.isCaptured())
-                .filter(p -> p.getColor() == color)
-                .filter(p -> p.getType() == PieceType.KING)
-                .findFirst()
-                .orElse(null);
+    private static PlayerColor opponentOf(PlayerColor color) {
+        return (color == PlayerColor.WHITE) ? PlayerColor.BLACK : PlayerColor.WHITE;
     }
 
     /**
      * Проверяет, находится ли король под шахом.
      */
     public boolean isKingInCheck(PlayerColor color) {
-        Piece king = findKing(board, color);
-        if (king == null) {
-            return false;
-        }
-
-        return isSquareUnderAttack(king.getPosition(), color);
+        int king = board.getKingCell(color);
+        return king >= 0 && attackDetector.isAttacked(king, opponentOf(color));
     }
 
     /**
      * Проверяет, есть ли у игрока допустимые ходы.
      */
     public boolean hasLegalMoves(PlayerColor color) {
-        for (Piece piece : board.getPieces()) {
-            if (piece.getColor() == color && !piece.isCaptured()) {
-                for (int q = -5; q <= 5; q++) {
-                    for (int r = -5; r <= 5; r++) {
-                        int s = -q - r;
-                        if (Math.abs(s) <= 5) {
-                            Hex destination = new Hex(q, r, s);
-                            if (isValidMove(piece, destination)) {
-                                return true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        return false;
+        return getMoveGenerator().hasLegalMoves(color);
     }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Piece;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Текстовая запись позиции в духе FEN для доски Глинского.
+ *
+ * <p>Запись состоит из шести полей через пробел:
+ * <ol>
+ *     <li>расстановка по горизонталям от 11-й к 1-й через "/"; в горизонтали поля идут
+ *     по вертикалям a-l, белые фигуры - заглавные буквы PRNBQK, черные - строчные,
+ *     число - количество пустых полей подряд;</li>
+ *     <li>очередь хода: w или b;</li>
+ *     <li>права двойного шага: поля пешек, которые еще не ходили и стоят на начальной
+ *     горизонтали двойного шага (например, b1k7), или "-";</li>
+ *     <li>поле взятия на проходе: в этих правилах взятия на проходе нет, поэтому всегда "-";
+ *     при чтении допускается название поля, оно проверяется и не учитывается;</li>
+ *     <li>число полуходов после последнего взятия или хода пешкой;</li>
+ *     <li>номер хода.</li>
+ * </ol>
+ * Два последних поля при чтении можно опустить.
+ */
+public final class PositionNotation {
+    /** Запись начальной расстановки. */
+    public static final String START_POSITION =
+            "b/kbq/n1b1n/r5r/ppppppppp/11/5P5/4P1P4/3P1B1P3/2P2B2P2/1PRNQBKNRP1 w b1k7 - 0 1";
+
+    private static final int WHITE_DOUBLE_STEP_RANK = 5;
+    private static final int BLACK_DOUBLE_STEP_RANK = -5;
+    private static final int WHITE_PROMOTION_RANK = -5;
+    private static final int BLACK_PROMOTION_RANK = 5;
+
+    /** Поля каждой горизонтали (индекс - номер горизонтали) по порядку вертикалей. */
+    private static final int[][] RANK_CELLS = buildRankCells();
+
+    private PositionNotation() {
+    }
+
+    /**
+     * Создает доску по записи позиции.
+     * @throws IllegalArgumentException если запись неверна
+     */
+    public static Board parse(String text) {
+        String[] fields = text.trim().split("\\s+");
+        if (fields.length != 4 && fields.length != 6) {
+            throw new IllegalArgumentException("Запись позиции должна состоять из 4 или 6 полей: " + text);
+        }
+
+        List<Piece> pieces = parsePlacement(fields[0]);
+        PlayerColor currentPlayer = parseSide(fields[1]);
+        applyDoubleStepRights(pieces, fields[2]);
+        if (!fields[3].equals("-")) {
+            GlinskiNotation.parseCell(fields[3]);
+        }
+        int halfmoveClock = fields.length == 6 ? parseCounter(fields[4], 0) : 0;
+        int fullmoveNumber = fields.length == 6 ? parseCounter(fields[5], 1) : 1;
+
+        return Board.of(pieces, currentPlayer, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * Возвращает запись позиции доски.
+     */
+    public static String format(Board board) {
+        StringBuilder sb = new StringBuilder(96);
+        for (int rank = GlinskiNotation.RANK_COUNT; rank >= 1; rank--) {
+            int empty = 0;
+            for (int cell : RANK_CELLS[rank]) {
+                Piece piece = board.getPieceAt(cell);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                char symbol = piece.getType().getSymbol();
+                sb.append(piece.getColor() == PlayerColor.WHITE ? symbol : Character.toLowerCase(symbol));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (rank > 1) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(board.getCurrentPlayer() == PlayerColor.WHITE ? " w " : " b ");
+
+        int rightsStart = sb.length();
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Piece piece = board.getPieceAt(cell);
+            if (piece != null && hasDoubleStepRight(piece)) {
+                sb.append(GlinskiNotation.cellName(cell));
+            }
+        }
+        if (sb.length() == rightsStart) {
+            sb.append('-');
+        }
+
+        sb.append(" - ").append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+        return sb.toString();
+    }
+
+    private static List<Piece> parsePlacement(String placement) {
+        List<Piece> pieces = new ArrayList<>();
+        int[] kings = new int[2];
+        int rank = GlinskiNotation.RANK_COUNT;
+        int file = 0;
+
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                checkRankFilled(rank, file);
+                if (--rank < 1) {
+                    throw new IllegalArgumentException("Слишком много горизонталей: " + placement);
+                }
+                file = 0;
+            } else if (c >= '0' && c <= '9') {
+                int empty = c - '0';
+                while (i + 1 < placement.length() && Character.isDigit(placement.charAt(i + 1))) {
+                    empty = empty * 10 + (placement.charAt(++i) - '0');
+                }
+                file += empty;
+                if (empty == 0 || file > RANK_CELLS[rank].length) {
+                    throw new IllegalArgumentException("Неверное число пустых полей на горизонтали " + rank);
+                }
+            } else {
+                PieceType type = PieceType.fromSymbol(c);
+                if (type == null) {
+                    throw new IllegalArgumentException("Неизвестная фигура: " + c);
+                }
+                if (file >= RANK_CELLS[rank].length) {
+                    throw new IllegalArgumentException("Слишком много полей на горизонтали " + rank);
+                }
+
+                PlayerColor color = Character.isUpperCase(c) ? PlayerColor.WHITE : PlayerColor.BLACK;
+                int cell = RANK_CELLS[rank][file++];
+                if (type == PieceType.PAWN && HexGrid.cellAt(cell).getR() ==
+                        (color == PlayerColor.WHITE ? WHITE_PROMOTION_RANK : BLACK_PROMOTION_RANK)) {
+                    throw new IllegalArgumentException("Пешка на последней горизонтали: " +
+                            GlinskiNotation.cellName(cell));
+                }
+                if (type == PieceType.KING) {
+                    kings[color.ordinal()]++;
+                }
+                pieces.add(new Piece(type, color, HexGrid.cellAt(cell)));
+            }
+        }
+
+        checkRankFilled(rank, file);
+        if (rank != 1) {
+            throw new IllegalArgumentException("Ожидается " + GlinskiNotation.RANK_COUNT + " горизонталей: " +
+                    placement);
+        }
+        if (kings[0] != 1 || kings[1] != 1) {
+            throw new IllegalArgumentException("У каждой стороны должен быть ровно один король");
+        }
+        return pieces;
+    }
+
+    private static void checkRankFilled(int rank, int file) {
+        if (file != RANK_CELLS[rank].length) {
+            throw new IllegalArgumentException("На горизонтали " + rank + " должно быть " +
+                    RANK_CELLS[rank].length + " полей");
+        }
+    }
+
+    private static PlayerColor parseSide(String side) {
+        return switch (side) {
+            case "w" -> PlayerColor.WHITE;
+            case "b" -> PlayerColor.BLACK;
+            default -> throw new IllegalArgumentException("Неверная очередь хода: " + side);
+        };
+    }
+
+    /**
+     * Помечает сходившими все пешки, кроме перечисленных в поле прав двойного шага.
+     */
+    private static void applyDoubleStepRights(List<Piece> pieces, String rights) {
+        List<Integer> cells = new ArrayList<>();
+        if (!rights.equals("-")) {
+            int start = 0;
+            for (int i = 1; i <= rights.length(); i++) {
+                if (i == rights.length() || Character.isLetter(rights.charAt(i))) {
+                    cells.add(GlinskiNotation.parseCell(rights.substring(start, i)));
+                    start = i;
+                }
+            }
+        }
+
+        for (Piece piece : pieces) {
+            if (piece.getType() != PieceType.PAWN) {
+                continue;
+            }
+            if (cells.remove((Integer) HexGrid.indexOf(piece.getPosition()))) {
+                if (!hasDoubleStepRight(piece)) {
+                    throw new IllegalArgumentException("Пешка не может иметь права двойного шага: " +
+                            GlinskiNotation.cellName(piece.getPosition()));
+                }
+            } else {
+                // Флаг первого хода ставится так же, как при копировании доски
+                piece.setPosition(piece.getPosition());
+            }
+        }
+
+        if (!cells.isEmpty()) {
+            throw new IllegalArgumentException("На поле " + GlinskiNotation.cellName(cells.get(0)) + " нет пешки");
+        }
+    }
+
+    private static boolean hasDoubleStepRight(Piece piece) {
+        int rank = piece.getColor() == PlayerColor.WHITE ? WHITE_DOUBLE_STEP_RANK : BLACK_DOUBLE_STEP_RANK;
+        return piece.getType() == PieceType.PAWN && !piece.hasMoved() && piece.getPosition().getR() == rank;
+    }
+
+    private static int parseCounter(String value, int min) {
+        int counter;
+        try {
+            counter = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Неверный счетчик ходов: " + value);
+        }
+        if (counter < min) {
+            throw new IllegalArgumentException("Неверный счетчик ходов: " + value);
+        }
+        return counter;
+    }
+
+    private static int[][] buildRankCells() {
+        int[][] rankCells = new int[GlinskiNotation.RANK_COUNT + 1][];
+        rankCells[0] = new int[0];
+        for (int rank = 1; rank <= GlinskiNotation.RANK_COUNT; rank++) {
+            int[] cells = new int[GlinskiNotation.FILE_COUNT];
+            int count = 0;
+            for (int file = 0; file < GlinskiNotation.FILE_COUNT; file++) {
+                int cell = GlinskiNotation.cellIndex(file, rank);
+                if (cell >= 0) {
+                    cells[count++] = cell;
+                }
+            }
+            rankCells[rank] = Arrays.copyOf(cells, count);
+        }
+        return rankCells;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import java.util.Arrays;
+
+/**
+ * Результаты партий, прошедших через позицию, всего и по каждому следующему ходу.
+ * Ходы хранятся без флагов ({@link ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove#squares}),
+ * партии, закончившиеся в этой позиции, в ходы не попадают. Ходы упорядочены по числу партий.
+ */
+public class PositionStats {
+    private static final int MOVE_SLOTS = 1 << 14;
+
+    private int games;
+    private final int[] results = new int[GameDatabase.RESULT_COUNT];
+
+    private int moveCount;
+    private int[] moves = new int[16];
+    private int[][] moveResults = new int[16][];
+    private int[] slots;
+
+    /**
+     * Учитывает count партий со следующим ходом move (0 - партия закончилась)
+     * и кодом результата из {@link GameDatabase}.
+     */
+    void add(int move, int result, int count) {
+        if (count == 0) {
+            return;
+        }
+        games += count;
+        results[result] += count;
+        if (move == 0) {
+            return;
+        }
+
+        if (slots == null) {
+            slots = new int[MOVE_SLOTS];
+        }
+        int slot = slots[move] - 1;
+        if (slot < 0) {
+            if (moveCount == moves.length) {
+                moves = Arrays.copyOf(moves, moveCount * 2);
+                moveResults = Arrays.copyOf(moveResults, moveCount * 2);
+            }
+            slot = moveCount++;
+            moves[slot] = move;
+            moveResults[slot] = new int[GameDatabase.RESULT_COUNT];
+            slots[move] = slot + 1;
+        }
+        moveResults[slot][result] += count;
+    }
+
+    /**
+     * Упорядочивает ходы по убыванию числа партий.
+     */
+    void sort() {
+        Integer[] order = new Integer[moveCount];
+        for (int i = 0; i < moveCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(total(moveResults[b]), total(moveResults[a])));
+
+        int[] sortedMoves = new int[moveCount];
+        int[][] sortedResults = new int[moveCount][];
+        for (int i = 0; i < moveCount; i++) {
+            sortedMoves[i] = moves[order[i]];
+            sortedResults[i] = moveResults[order[i]];
+        }
+        moves = sortedMoves;
+        moveResults = sortedResults;
+        slots = null;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWhiteWins() {
+        return results[GameDatabase.RESULT_WHITE_WINS];
+    }
+
+    public int getBlackWins() {
+        return results[GameDatabase.RESULT_BLACK_WINS];
+    }
+
+    public int getDraws() {
+        return results[GameDatabase.RESULT_DRAW];
+    }
+
+    /**
+     * Возвращает долю очков белых в завершенных партиях (ничья - половина очка) или NaN, если таких партий нет.
+     */
+    public double getWhiteScore() {
+        return score(results);
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    public int getMoveGames(int i) {
+        return total(moveResults[i]);
+    }
+
+    public int getMoveWhiteWins(int i) {
+        return moveResults[i][GameDatabase.RESULT_WHITE_WINS];
+    }
+
+    public int getMoveBlackWins(int i) {
+        return moveResults[i][GameDatabase.RESULT_BLACK_WINS];
+    }
+
+    public int getMoveDraws(int i) {
+        return moveResults[i][GameDatabase.RESULT_DRAW];
+    }
+
+    /**
+     * Возвращает долю очков белых в завершенных партиях после хода i.
+     */
+    public double getMoveWhiteScore(int i) {
+        return score(moveResults[i]);
+    }
+
+    private static int total(int[] counts) {
+        return counts[0] + counts[1] + counts[2] + counts[3];
+    }
+
+    private static double score(int[] counts) {
+        int white = counts[GameDatabase.RESULT_WHITE_WINS];
+        int black = counts[GameDatabase.RESULT_BLACK_WINS];
+        int draws = counts[GameDatabase.RESULT_DRAW];
+        int finished = white + black + draws;
+        return finished == 0 ? Double.NaN : (white + draws / 2.0) / finished;
+    }
+}
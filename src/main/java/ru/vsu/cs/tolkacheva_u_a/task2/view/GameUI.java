@@ -2,6 +2,8 @@ package ru.vsu.cs.tolkacheva_u_a.task2.view;
 
 import ru.vsu.cs.tolkacheva_u_a.task2.Main;
 import ru.vsu.cs.tolkacheva_u_a.task2.controller.GameController;
+import ru.vsu.cs.tolkacheva_u_a.task2.engine.EngineConfig;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecordWriter;
 import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameTimer;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
@@ -34,7 +36,15 @@ public class GameUI {
     /**
      * Инициализирует графический интерфейс игры.
      */
-    public void initialize(Main.GameMode gameMode, Main.PlayerColor playerColor) {
+    public void initialize(Main.GameMode gameMode, Main.PlayerColor playerColor, EngineConfig engineConfig) {
+        initialize(gameMode, playerColor, engineConfig, null);
+    }
+
+    /**
+     * Инициализирует графический интерфейс игры с записью партий в recordWriter (null - без записи).
+     */
+    public void initialize(Main.GameMode gameMode, Main.PlayerColor playerColor, EngineConfig engineConfig,
+                           GameRecordWriter recordWriter) {
 
         BorderPane root = new BorderPane();
 
@@ -49,8 +59,9 @@ public class GameUI {
 
         gameController = new GameController(boardView, this);
         boardView.setController(gameController);
+        gameController.setRecordWriter(recordWriter);
 
-        gameController.initializeGame(gameMode, playerColor);
+        gameController.initializeGame(gameMode, playerColor, engineConfig);
 
         Scene scene = new Scene(root, 1200, 800);
 
@@ -7,8 +7,7 @@ import javafx.scene.shape.Polygon;
 import javafx.scene.paint.Color;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.Cursor;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,15 +19,15 @@ public class HexBoardView {
     private static final double HEX_HEIGHT = 2 * HEX_SIZE;
 
     private final Pane boardPane;
-    private final Map<Hex, Polygon> hexMap;
-    private final Map<Hex, PieceView> pieceViews;
+    private final Polygon[] hexagons;
+    private final PieceView[] pieceViews;
     private GameController controller;
     private Hex selectedHex;
 
     public HexBoardView() {
         this.boardPane = new Pane();
-        this.hexMap = new HashMap<>();
-        this.pieceViews = new HashMap<>();
+        this.hexagons = new Polygon[HexGrid.CELL_COUNT];
+        this.pieceViews = new PieceView[HexGrid.CELL_COUNT];
         this.selectedHex = null;
         boardPane.setStyle("-fx-background-color: #2c3e50;");
     }
@@ -43,19 +42,12 @@ public class HexBoardView {
      */
     public void createBoard() {
         boardPane.getChildren().clear();
-        hexMap.clear();
-        pieceViews.clear();
-
-        for (int q = -5; q <= 5; q++) {
-            for (int r = -5; r <= 5; r++) {
-                int s = -q - r;
-                if (Math.abs(s) <= 5) {
-                    Hex hex = new Hex(q, r, s);
-                    Polygon hexagon = createHexagon(hex);
-                    hexMap.put(hex, hexagon);
-                    boardPane.getChildren().add(hexagon);
-                }
-            }
+        Arrays.fill(pieceViews, null);
+
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Polygon hexagon = createHexagon(HexGrid.cellAt(cell));
+            hexagons[cell] = hexagon;
+            boardPane.getChildren().add(hexagon);
         }
 
         centerBoard();
@@ -120,9 +112,12 @@ public class HexBoardView {
         double offsetX = (boardPane.getWidth() - boardWidth) / 2;
         double offsetY = (boardPane.getHeight() - boardHeight) / 2;
 
-        for (Map.Entry<Hex, Polygon> entry : hexMap.entrySet()) {
-            Hex hex = entry.getKey();
-            Polygon polygon = entry.getValue();
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            Hex hex = HexGrid.cellAt(cell);
+            Polygon polygon = hexagons[cell];
+            if (polygon == null) {
+                continue;
+            }
 
             double centerX = offsetX + HEX_HEIGHT * 0.75 * hex.getR() + boardWidth / 2;
             double centerY = offsetY + HEX_WIDTH * (hex.getQ() + hex.getR() / 2.0) + boardHeight / 2;
@@ -165,9 +160,14 @@ public class HexBoardView {
     public void drawPiece(Piece piece, Hex hex) {
         removePiece(hex);
 
+        int cell = HexGrid.indexOf(hex);
+        if (cell < 0) {
+            return;
+        }
+
         PieceView pieceView = new PieceView(piece);
 
-        Polygon hexagon = hexMap.get(hex);
+        Polygon hexagon = hexagons[cell];
         if (hexagon != null) {
             // Вычисляем центр шестиугольника
             double centerX = getHexagonCenterX(hexagon);
@@ -177,7 +177,7 @@ public class HexBoardView {
             pieceView.setPosition(centerX, centerY);
         }
 
-        pieceViews.put(hex, pieceView);
+        pieceViews[cell] = pieceView;
 
         boardPane.getChildren().add(pieceView.getView());
 
@@ -224,7 +224,13 @@ public class HexBoardView {
      * Удаляет фигуру с указанного поля.
      */
     public void removePiece(Hex hex) {
-        PieceView pieceView = pieceViews.remove(hex);
+        int cell = HexGrid.indexOf(hex);
+        if (cell < 0) {
+            return;
+        }
+
+        PieceView pieceView = pieceViews[cell];
+        pieceViews[cell] = null;
         if (pieceView != null && pieceView.getView() != null) {
             boardPane.getChildren().remove(pieceView.getView());
         }
@@ -236,24 +242,27 @@ public class HexBoardView {
     public void movePiece(Hex from, Hex to) {
         System.out.println("Перемещение фигуры с " + from + " на " + to);
 
+        int fromCell = HexGrid.indexOf(from);
+        int toCell = HexGrid.indexOf(to);
+
         // Получаем представление фигуры
-        PieceView pieceView = pieceViews.get(from);
-        if (pieceView == null) {
+        PieceView pieceView = fromCell >= 0 ? pieceViews[fromCell] : null;
+        if (pieceView == null || toCell < 0) {
             System.err.println("Ошибка: фигура не найдена на поле " + from);
             return;
         }
 
         // Удаляем старую запись
-        pieceViews.remove(from);
+        pieceViews[fromCell] = null;
 
         // Обновляем позицию фигуры в модели
         pieceView.getPiece().setPosition(to);
 
         // Добавляем новую запись с новой позицией
-        pieceViews.put(to, pieceView);
+        pieceViews[toCell] = pieceView;
 
         // Получаем целевой шестиугольник
-        Polygon targetHex = hexMap.get(to);
+        Polygon targetHex = hexagons[toCell];
         if (targetHex != null) {
             // Вычисляем новый центр
             double centerX = getHexagonCenterX(targetHex);
@@ -274,14 +283,15 @@ public class HexBoardView {
      */
     public void highlightSelectedHex(Hex hex, boolean selected) {
         if (selectedHex != null) {
-            Polygon oldHex = hexMap.get(selectedHex);
+            Polygon oldHex = hexagons[HexGrid.indexOf(selectedHex)];
             if (oldHex != null) {
                 resetHexColor(oldHex, selectedHex);
             }
         }
 
         if (selected && hex != null) {
-            Polygon newHex = hexMap.get(hex);
+            int cell = HexGrid.indexOf(hex);
+            Polygon newHex = cell >= 0 ? hexagons[cell] : null;
             if (newHex != null) {
                 newHex.setStroke(Color.RED);
                 newHex.setStrokeWidth(3);
@@ -314,7 +324,8 @@ public class HexBoardView {
 
         if (validMoves != null) {
             for (Hex move : validMoves) {
-                Polygon hexagon = hexMap.get(move);
+                int cell = HexGrid.indexOf(move);
+                Polygon hexagon = cell >= 0 ? hexagons[cell] : null;
                 if (hexagon != null) {
                     if (controller != null && controller.isSquareOccupiedByOpponent(move)) {
                         hexagon.setFill(Color.rgb(255, 100, 100, 0.7));
@@ -332,10 +343,10 @@ public class HexBoardView {
      * Восстанавливает исходные цвета всех полей.
      */
     public void clearHighlights() {
-        for (Map.Entry<Hex, Polygon> entry : hexMap.entrySet()) {
-            Hex hex = entry.getKey();
-            Polygon hexagon = entry.getValue();
-            resetHexColor(hexagon, hex);
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            if (hexagons[cell] != null) {
+                resetHexColor(hexagons[cell], HexGrid.cellAt(cell));
+            }
         }
     }
 
@@ -345,8 +356,8 @@ public class HexBoardView {
      */
     public void clearBoard() {
         boardPane.getChildren().clear();
-        hexMap.clear();
-        pieceViews.clear();
+        Arrays.fill(hexagons, null);
+        Arrays.fill(pieceViews, null);
     }
 
     /**
@@ -357,11 +368,10 @@ public class HexBoardView {
         boardPane.setPrefSize(width, height);
         centerBoard();
 
-        for (Map.Entry<Hex, PieceView> entry : pieceViews.entrySet()) {
-            Hex hex = entry.getKey();
-            PieceView pieceView = entry.getValue();
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            PieceView pieceView = pieceViews[cell];
 
-            Polygon hexagon = hexMap.get(hex);
+            Polygon hexagon = hexagons[cell];
             if (hexagon != null && pieceView != null) {
                 double centerX = getHexagonCenterX(hexagon);
                 double centerY = getHexagonCenterY(hexagon);
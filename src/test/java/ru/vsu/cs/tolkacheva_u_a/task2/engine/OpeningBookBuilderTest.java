@@ -0,0 +1,122 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.GameRecord;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.keyAfter;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.move;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.moves;
+
+class OpeningBookBuilderTest {
+    private static final int PROBES = 20000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void weightsFollowResultsOfMovingSide() throws IOException {
+        OpeningBook book = build(1, 10);
+
+        // Победа - 2 очка сделавшей ход стороне, ничья - 1, поражение - 0
+        int start = book.findPosition(keyAfter(""));
+        assertTrue(start >= 0);
+        assertEquals(move("c1-e3"), book.getMove(start));
+        assertEquals(2, book.getWeight(start));
+        assertEquals(move("k1-k2"), book.getMove(start + 1));
+        assertEquals(6, book.getWeight(start + 1));
+        assertFalse(start + 2 < book.getEntryCount() && book.getKey(start + 2) == keyAfter(""));
+
+        // Черные проиграли все партии после c7-c6, поэтому позиции после k1-k2 в книге нет
+        assertEquals(-1, book.findPosition(keyAfter("k1-k2")));
+        assertEquals(PackedMove.NONE, book.probe(keyAfter("k1-k2"), new SplittableRandom(1)));
+
+        int afterE3 = book.findPosition(keyAfter("c1-e3"));
+        assertEquals(move("i8-h8"), book.getMove(afterE3));
+        assertEquals(2, book.getWeight(afterE3));
+        int afterE5 = book.findPosition(keyAfter("e4-e5"));
+        assertEquals(move("e7-e6"), book.getMove(afterE5));
+        assertEquals(2, book.getWeight(afterE5));
+        assertEquals(3, book.getPositionCount());
+    }
+
+    @Test
+    void probeChoosesMovesInProportionToWeight() throws IOException {
+        OpeningBook book = build(1, 10);
+        SplittableRandom random = new SplittableRandom(7);
+        long start = keyAfter("");
+
+        int k2 = 0;
+        for (int i = 0; i < PROBES; i++) {
+            int move = book.probe(start, random);
+            if (move == move("k1-k2")) {
+                k2++;
+            } else {
+                assertEquals(move("c1-e3"), move);
+            }
+        }
+        assertEquals(0.75, (double) k2 / PROBES, 0.02);
+        assertEquals(move("i8-h8"), book.probe(keyAfter("c1-e3"), random));
+    }
+
+    @Test
+    void minGamesAndPliesLimitBook() throws IOException {
+        OpeningBook frequent = build(3, 10);
+        assertEquals(1, frequent.getEntryCount());
+        assertEquals(move("k1-k2"), frequent.getMove(0));
+
+        OpeningBook firstPly = build(1, 1);
+        assertEquals(1, firstPly.getPositionCount());
+        assertEquals(-1, firstPly.findPosition(keyAfter("c1-e3")));
+    }
+
+    @Test
+    void rejectedGameDoesNotChangeBook() throws IOException {
+        MoveList bad = moves("e4-e5 e7-e6 f3-c6");
+        bad.add(move("f3-c6"));
+
+        OpeningBookBuilder expected = new OpeningBookBuilder(10);
+        expected.addGame(moves("k1-k2 c7-c6"), GameRecord.WHITE_WINS);
+        Path expectedFile = directory.resolve("expected.bin");
+        expected.write(expectedFile, 1);
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(10);
+        builder.addGame(moves("k1-k2 c7-c6"), GameRecord.WHITE_WINS);
+        assertThrows(IllegalArgumentException.class, () -> builder.addGame(bad, GameRecord.WHITE_WINS));
+        Path file = directory.resolve("book.bin");
+        builder.write(file, 1);
+
+        assertArrayEquals(Files.readAllBytes(expectedFile), Files.readAllBytes(file));
+    }
+
+    /**
+     * Собирает книгу из трех побед белых после k1-k2 c7-c6, двух ничьих после c1-e3 i8-h8,
+     * поражения белых после e4-e5 e7-e6 и незавершенной партии.
+     */
+    private OpeningBook build(int minGames, int maxPlies) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(builder.addGame(moves("k1-k2 c7-c6"), GameRecord.WHITE_WINS));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(builder.addGame(moves("c1-e3 i8-h8"), GameRecord.DRAW));
+        }
+        assertTrue(builder.addGame(moves("e4-e5 e7-e6"), GameRecord.BLACK_WINS));
+        assertFalse(builder.addGame(moves("e4-e5"), GameRecord.UNFINISHED));
+
+        Path file = Files.createTempFile(directory, "book", ".bin");
+        builder.write(file, minGames);
+        return new OpeningBook(file);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchEngineTest {
+    @Test
+    void unlimitedTimeIsLimitedOnlyByDepth() {
+        EngineConfig config = new EngineConfig();
+        config.setMoveTimeMillis(EngineConfig.UNLIMITED_MOVE_TIME);
+        config.setMaxDepth(3);
+        config.setHashSizeMb(1);
+
+        SearchResult result = new SearchEngine(new BitBoard(new Board()), config).search(Long.MAX_VALUE);
+
+        assertTrue(result.hasMove());
+        assertEquals(3, result.getDepth());
+    }
+
+    @Test
+    void searchStopsWhenBudgetIsSpent() {
+        EngineConfig config = new EngineConfig();
+        config.setMoveTimeMillis(50);
+        config.setHashSizeMb(1);
+
+        SearchResult result = new SearchEngine(new BitBoard(new Board()), config).search(Long.MAX_VALUE);
+
+        assertTrue(result.hasMove());
+        assertTrue(result.getDepth() < EngineConfig.MAX_DEPTH, "Поиск не остановился по времени");
+        assertTrue(result.getElapsedMillis() < 1000, () -> "Поиск шел " + result.getElapsedMillis() + " мс");
+    }
+
+    @Test
+    void budgetIsMeasuredFromStartTime() {
+        EngineConfig config = new EngineConfig();
+        config.setHashSizeMb(1);
+        SearchEngine engine = new SearchEngine(new BitBoard(new Board()), config);
+
+        // Поиск начат "раньше", чем его бюджет: первая проверка времени останавливает его
+        SearchResult result = engine.search(System.nanoTime() - 10_000_000_000L, 1_000, 1);
+
+        assertTrue(result.hasMove());
+        assertTrue(result.getDepth() < 4, () -> "Глубина " + result.getDepth());
+    }
+
+    @Test
+    void budgetIsShareOfRemainingTime() {
+        EngineConfig config = new EngineConfig();
+        config.setMoveTimeMillis(500);
+
+        assertEquals(500, SearchEngine.budgetMillis(config, Long.MAX_VALUE));
+        assertEquals(100, SearchEngine.budgetMillis(config, 2_000));
+        assertEquals(1, SearchEngine.budgetMillis(config, 0));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TranspositionTableTest {
+    private static final long KEY = 0x123456789ABCDEFL;
+
+    @Test
+    void shallowBoundDoesNotReplaceDeepResult() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 8, TranspositionTable.BOUND_LOWER, 120, 0);
+        table.store(KEY, 3, TranspositionTable.BOUND_UPPER, -40, 0);
+
+        long data = table.probe(KEY);
+        assertEquals(8, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(data));
+        assertEquals(120, TranspositionTable.getScore(data));
+    }
+
+    @Test
+    void exactScoreReplacesSlightlyDeeperBound() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 7, TranspositionTable.BOUND_LOWER, 120, 0);
+        table.store(KEY, 5, TranspositionTable.BOUND_EXACT, 60, 0);
+
+        long data = table.probe(KEY);
+        assertEquals(5, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.BOUND_EXACT, TranspositionTable.getBound(data));
+    }
+
+    @Test
+    void shallowExactScoreDoesNotReplaceDeepBound() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 8, TranspositionTable.BOUND_LOWER, 120, 0);
+        table.store(KEY, 1, TranspositionTable.BOUND_EXACT, 60, 0);
+
+        long data = table.probe(KEY);
+        assertEquals(8, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(data));
+        assertEquals(120, TranspositionTable.getScore(data));
+    }
+
+    @Test
+    void staleEntryIsReplaced() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 8, TranspositionTable.BOUND_LOWER, 120, 0);
+        table.newSearch();
+        table.store(KEY, 2, TranspositionTable.BOUND_UPPER, -40, 0);
+
+        assertEquals(2, TranspositionTable.getDepth(table.probe(KEY)));
+    }
+}
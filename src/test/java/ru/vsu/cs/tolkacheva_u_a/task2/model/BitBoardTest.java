@@ -0,0 +1,91 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionNotation;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.vsu.cs.tolkacheva_u_a.task2.model.RandomGames.pickMove;
+import static ru.vsu.cs.tolkacheva_u_a.task2.model.RandomGames.snapshot;
+import static ru.vsu.cs.tolkacheva_u_a.task2.model.RandomGames.sorted;
+
+class BitBoardTest {
+    private static final int GAMES = 40;
+    private static final int PLIES = 200;
+
+    @Test
+    void legalMovesMatchBoardOnRandomGames() {
+        SplittableRandom random = new SplittableRandom(42);
+        MoveList boardMoves = new MoveList();
+        MoveList bitMoves = new MoveList();
+
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new Board();
+            BitBoard bitBoard = new BitBoard(board);
+
+            for (int ply = 0; ply < PLIES; ply++) {
+                boardMoves.clear();
+                bitMoves.clear();
+                board.generateLegalMoves(boardMoves);
+                bitBoard.generateLegalMoves(bitMoves);
+
+                String position = PositionNotation.format(board);
+                PlayerColor side = board.getCurrentPlayer();
+                assertEquals(snapshot(board), snapshot(bitBoard), () -> "Позиция " + position);
+                assertArrayEquals(sorted(boardMoves), sorted(bitMoves), () -> "Позиция " + position);
+                assertEquals(board.isKingInCheck(side), bitBoard.isKingInCheck(side), () -> "Позиция " + position);
+                assertEquals(!boardMoves.isEmpty(), bitBoard.hasLegalMoves(), () -> "Позиция " + position);
+                assertEquals(snapshot(bitBoard), snapshot(new BitBoard(board)), () -> "Позиция " + position);
+
+                if (boardMoves.isEmpty()) {
+                    break;
+                }
+                int move = pickMove(boardMoves, random);
+                board.makeMove(PackedMove.from(move), PackedMove.to(move));
+                bitBoard.makeMove(PackedMove.from(move), PackedMove.to(move));
+            }
+        }
+    }
+
+    @Test
+    void unmakeRestoresPosition() {
+        SplittableRandom random = new SplittableRandom(11);
+        MoveList moves = new MoveList();
+        MoveList after = new MoveList();
+
+        for (int game = 0; game < GAMES / 4; game++) {
+            Board board = new Board();
+            BitBoard bitBoard = new BitBoard(board);
+
+            for (int ply = 0; ply < PLIES; ply++) {
+                moves.clear();
+                board.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                String before = snapshot(board);
+                int[] legal = sorted(moves);
+
+                // Каждый ход выполняется и отменяется на обеих досках, позиция и список ходов не меняются
+                for (int i = 0; i < moves.size(); i++) {
+                    int from = moves.getFrom(i);
+                    int to = moves.getTo(i);
+                    for (Position position : new Position[]{board, bitBoard}) {
+                        position.makeMove(from, to);
+                        position.unmakeMove();
+                        after.clear();
+                        position.generateLegalMoves(after);
+                        assertEquals(before, snapshot(position), () -> PositionNotation.format(board));
+                        assertArrayEquals(legal, sorted(after), () -> PositionNotation.format(board));
+                    }
+                }
+
+                int move = pickMove(moves, random);
+                board.makeMove(PackedMove.from(move), PackedMove.to(move));
+                bitBoard.makeMove(PackedMove.from(move), PackedMove.to(move));
+            }
+        }
+    }
+}
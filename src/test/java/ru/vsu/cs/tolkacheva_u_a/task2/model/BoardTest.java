@@ -0,0 +1,127 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.vsu.cs.tolkacheva_u_a.task2.model.RandomGames.pickMove;
+
+class BoardTest {
+    private static final PlayerColor[] COLORS = {PlayerColor.WHITE, PlayerColor.BLACK};
+
+    @Test
+    void pieceListsFollowMakeAndUnmake() {
+        SplittableRandom random = new SplittableRandom(9);
+        MoveList moves = new MoveList();
+
+        for (int game = 0; game < 100; game++) {
+            Board board = new Board();
+            Deque<String> history = new ArrayDeque<>();
+            assertListsMatchCells(board);
+
+            for (int ply = 0; ply < 200; ply++) {
+                moves.clear();
+                board.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int move = pickMove(moves, random);
+                history.push(pieceLists(board));
+                board.makeMove(PackedMove.from(move), PackedMove.to(move));
+                assertListsMatchCells(board);
+
+                if (random.nextInt(4) == 0) {
+                    board.unmakeMove();
+                    assertEquals(history.pop(), pieceLists(board));
+                    assertListsMatchCells(board);
+                }
+            }
+
+            while (!history.isEmpty()) {
+                board.unmakeMove();
+                assertEquals(history.pop(), pieceLists(board));
+            }
+            assertEquals(new Board().getZobristKey(), board.getZobristKey());
+        }
+    }
+
+    @Test
+    void pieceListsFollowMovePieceAndCopy() {
+        SplittableRandom random = new SplittableRandom(5);
+        MoveList moves = new MoveList();
+
+        for (int game = 0; game < 50; game++) {
+            Board board = new Board();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                board.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                // Ход как в контроллере: взятая фигура помечается отдельно, затем фигура переставляется
+                int move = pickMove(moves, random);
+                Piece target = board.getPieceAt(PackedMove.to(move));
+                if (target != null) {
+                    target.capture();
+                }
+                board.movePiece(board.getPieceAt(PackedMove.from(move)), HexGrid.cellAt(PackedMove.to(move)));
+                assertListsMatchCells(board);
+
+                Board copy = board.copy();
+                assertListsMatchCells(copy);
+                assertEquals(pieceLists(board), pieceLists(copy));
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что списки фигур совпадают с содержимым полей доски.
+     */
+    private static void assertListsMatchCells(Board board) {
+        for (PlayerColor color : COLORS) {
+            for (PieceType type : PieceType.values()) {
+                int onCells = 0;
+                for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+                    if (board.getPieceTypeAt(cell) == type && board.getPieceColorAt(cell) == color) {
+                        onCells++;
+                    }
+                }
+                assertEquals(onCells, board.getPieceCount(color, type), color + " " + type);
+
+                for (int i = 0; i < board.getPieceCount(color, type); i++) {
+                    int cell = board.getPieceCell(color, type, i);
+                    assertTrue(board.getPieceTypeAt(cell) == type && board.getPieceColorAt(cell) == color,
+                            color + " " + type + " на поле " + cell);
+                }
+                if (type == PieceType.KING) {
+                    int expected = onCells == 0 ? -1 : board.getPieceCell(color, type, 0);
+                    assertEquals(expected, board.getKingCell(color));
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает поля фигур по спискам. Порядок внутри списка после отмены хода может измениться,
+     * поэтому поля сортируются.
+     */
+    private static String pieceLists(Board board) {
+        StringBuilder result = new StringBuilder();
+        for (PlayerColor color : COLORS) {
+            for (PieceType type : PieceType.values()) {
+                int[] cells = new int[board.getPieceCount(color, type)];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = board.getPieceCell(color, type, i);
+                }
+                Arrays.sort(cells);
+                result.append(Arrays.toString(cells));
+            }
+        }
+        return result.toString();
+    }
+}
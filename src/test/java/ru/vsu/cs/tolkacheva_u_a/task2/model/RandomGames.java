@@ -0,0 +1,50 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Общие части проверок на случайных партиях.
+ */
+final class RandomGames {
+    private RandomGames() {
+    }
+
+    /**
+     * Выбирает случайный ход, предпочитая взятия и превращения, чтобы чаще доходить до размена и эндшпиля.
+     */
+    static int pickMove(MoveList moves, SplittableRandom random) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int move = moves.get(random.nextInt(moves.size()));
+            if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                return move;
+            }
+        }
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    /**
+     * Возвращает ходы списка по возрастанию, чтобы сравнивать списки без учета порядка.
+     */
+    static int[] sorted(MoveList moves) {
+        int[] result = new int[moves.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = moves.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Возвращает строку с фигурами на всех полях, очередью хода и ключом позиции.
+     */
+    static String snapshot(Position position) {
+        StringBuilder result = new StringBuilder();
+        for (int cell = 0; cell < HexGrid.CELL_COUNT; cell++) {
+            PieceType type = position.getPieceTypeAt(cell);
+            result.append(type == null ? "." : position.getPieceColorAt(cell).name().charAt(0) + type.name());
+            result.append(' ');
+        }
+        return result.append(position.getCurrentPlayer()).append(' ').append(position.getZobristKey()).toString();
+    }
+}
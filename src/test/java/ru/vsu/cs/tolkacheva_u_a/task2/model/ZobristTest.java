@@ -0,0 +1,58 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.model;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.tools.Perft;
+import ru.vsu.cs.tolkacheva_u_a.task2.utils.PositionNotation;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.vsu.cs.tolkacheva_u_a.task2.model.RandomGames.pickMove;
+
+class ZobristTest {
+    @Test
+    void incrementalKeyMatchesKeyFromScratch() {
+        SplittableRandom random = new SplittableRandom(3);
+        MoveList moves = new MoveList();
+
+        for (int game = 0; game < 40; game++) {
+            Board board = new Board();
+            BitBoard bitBoard = new BitBoard(board);
+            assertEquals(Zobrist.keyOf(board), board.getZobristKey());
+
+            for (int ply = 0; ply < 200; ply++) {
+                moves.clear();
+                bitBoard.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int move = pickMove(moves, random);
+                board.makeMove(PackedMove.from(move), PackedMove.to(move));
+                bitBoard.makeMove(PackedMove.from(move), PackedMove.to(move));
+
+                assertEquals(Zobrist.keyOf(board), board.getZobristKey());
+                assertEquals(Zobrist.keyOf(bitBoard), bitBoard.getZobristKey());
+                assertEquals(board.getZobristKey(), bitBoard.getZobristKey());
+            }
+        }
+    }
+
+    @Test
+    void transpositionsHaveEqualKeys() {
+        Board first = new Board();
+        Perft.playMoves(first, "c2-c3 c7-c6 d3-d4 d7-d6");
+        BitBoard second = new BitBoard(new Board());
+        Perft.playMoves(second, "d3-d4 d7-d6 c2-c3 c7-c6");
+
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+        assertEquals(Zobrist.keyOf(first), second.getZobristKey());
+    }
+
+    @Test
+    void keyDependsOnSideToMove() {
+        Board white = PositionNotation.parse(PositionNotation.START_POSITION);
+        Board black = PositionNotation.parse(PositionNotation.START_POSITION.replace(" w ", " b "));
+
+        assertEquals(new Board().getZobristKey(), white.getZobristKey());
+        assertEquals(white.getZobristKey() ^ Zobrist.sideKey(), black.getZobristKey());
+    }
+}
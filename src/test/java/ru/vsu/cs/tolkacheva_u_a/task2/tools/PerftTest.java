@@ -0,0 +1,72 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.tools;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Position;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Сверяет perft с эталонами из perft.txt на обеих досках. Эталоны глубже {@value #MAX_DEPTH}
+ * проверяются только вручную через {@code Perft --check}.
+ */
+class PerftTest {
+    private static final int MAX_DEPTH = 4;
+
+    @Test
+    void bitBoardMatchesFixtures() throws IOException {
+        checkFixtures(false);
+    }
+
+    @Test
+    void boardMatchesFixtures() throws IOException {
+        checkFixtures(true);
+    }
+
+    private static void checkFixtures(boolean useBoard) throws IOException {
+        List<String> fixtures = readFixtures();
+        assertFalse(fixtures.isEmpty());
+
+        for (String line : fixtures) {
+            String[] parts = line.split("\\s+", 3);
+            int depth = Integer.parseInt(parts[0]);
+            if (depth > MAX_DEPTH) {
+                continue;
+            }
+            long expected = Long.parseLong(parts[1]);
+            Board board = new Board();
+            Position position = useBoard ? board : new BitBoard(board);
+            Perft.playMoves(position, parts.length > 2 ? parts[2] : "");
+            long key = position.getZobristKey();
+
+            assertEquals(expected, new Perft(position).perft(depth), line);
+            assertEquals(key, position.getZobristKey(), line);
+        }
+    }
+
+    private static List<String> readFixtures() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = PerftTest.class.getResourceAsStream("/perft.txt")) {
+            assertNotNull(in, "Не найден файл эталонов perft.txt");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+}
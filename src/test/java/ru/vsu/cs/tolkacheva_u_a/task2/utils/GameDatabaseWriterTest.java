@@ -0,0 +1,122 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.keyAfter;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.move;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.moves;
+
+class GameDatabaseWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void positionStatsCountResultsByNextMove() throws IOException {
+        Path file = directory.resolve("games.db");
+        try (GameDatabaseWriter writer = new GameDatabaseWriter(file)) {
+            writer.addGame(moves("k1-k2 c7-c6"), GameRecord.WHITE_WINS);
+            writer.addGame(moves("k1-k2 e7-e6"), GameRecord.BLACK_WINS);
+            writer.addGame(moves("c1-e3 i8-h8"), GameRecord.DRAW);
+            writer.addGame(moves("k1-k2 c7-c6 e4-e5"), GameRecord.DRAW);
+            writer.addGame(moves("k1-k2"), GameRecord.UNFINISHED);
+        }
+
+        try (GameDatabase database = new GameDatabase(file)) {
+            assertEquals(5, database.getGameCount());
+            assertEquals(10, database.getMoveCount());
+
+            PositionStats start = database.getPositionStats(keyAfter(""));
+            assertEquals(5, start.getGames());
+            assertEquals(1, start.getWhiteWins());
+            assertEquals(1, start.getBlackWins());
+            assertEquals(2, start.getDraws());
+            assertEquals(2, start.getMoveCount());
+            assertEquals(move("k1-k2"), start.getMove(0));
+            assertEquals(4, start.getMoveGames(0));
+            assertEquals(move("c1-e3"), start.getMove(1));
+            assertEquals(1, start.getMoveDraws(1));
+            assertEquals(0.5, start.getWhiteScore(), 1e-9);
+
+            // Партия, закончившаяся в позиции, считается в итоге, но не в ходах
+            long afterK2 = keyAfter("k1-k2");
+            PositionStats stats = database.getPositionStats(afterK2);
+            assertEquals(4, stats.getGames());
+            assertEquals(4, database.countGames(afterK2));
+            assertEquals(2, stats.getMoveCount());
+            assertEquals(move("c7-c6"), stats.getMove(0));
+            assertEquals(2, stats.getMoveGames(0));
+            assertEquals(1, stats.getMoveWhiteWins(0));
+            assertEquals(1, stats.getMoveDraws(0));
+            assertEquals(move("e7-e6"), stats.getMove(1));
+            assertEquals(1, stats.getMoveBlackWins(1));
+            assertArrayEquals(new int[]{0, 1, 3, 4}, database.findGames(afterK2, 10));
+            assertArrayEquals(new int[]{0, 1}, database.findGames(afterK2, 2));
+
+            long missing = keyAfter("e4-e5");
+            assertEquals(0, database.countGames(missing));
+            assertEquals(0, database.getPositionStats(missing).getGames());
+            assertArrayEquals(new int[0], database.findGames(missing, 10));
+
+            MoveList stored = new MoveList();
+            database.getMoves(3, stored);
+            assertEquals(3, stored.size());
+            assertEquals(moves("k1-k2 c7-c6 e4-e5").get(2), stored.get(2));
+            assertEquals(GameRecord.DRAW, database.getResult(3));
+        }
+    }
+
+    @Test
+    void smallRunsGiveSameDatabase() throws IOException {
+        Path oneRun = directory.resolve("one.db");
+        Path manyRuns = directory.resolve("many.db");
+        SplittableRandom random = new SplittableRandom(17);
+        String[] results = {GameRecord.WHITE_WINS, GameRecord.BLACK_WINS, GameRecord.DRAW, GameRecord.UNFINISHED};
+
+        // Блок на 100 записей сбрасывается на диск почти после каждой партии
+        try (GameDatabaseWriter one = new GameDatabaseWriter(oneRun);
+             GameDatabaseWriter many = new GameDatabaseWriter(manyRuns, 100)) {
+            for (int game = 0; game < 300; game++) {
+                MoveList moves = TestGames.randomGame(random, 40 + random.nextInt(40));
+                String result = results[random.nextInt(results.length)];
+                one.addGame(moves, result);
+                many.addGame(moves, result);
+            }
+        }
+
+        assertArrayEquals(Files.readAllBytes(oneRun), Files.readAllBytes(manyRuns));
+        try (GameDatabase database = new GameDatabase(manyRuns)) {
+            assertEquals(300, database.getGameCount());
+            assertEquals(300, database.countGames(keyAfter("")));
+        }
+    }
+
+    @Test
+    void rejectedGameLeavesNoIndexEntries() throws IOException {
+        Path file = directory.resolve("games.db");
+        MoveList bad = moves("e4-e5 e7-e6 f3-c6");
+        bad.add(move("f3-c6"));
+
+        try (GameDatabaseWriter writer = new GameDatabaseWriter(file)) {
+            assertEquals(0, writer.addGame(moves("k1-k2 c7-c6"), GameRecord.DRAW));
+            assertThrows(IllegalArgumentException.class, () -> writer.addGame(bad, GameRecord.WHITE_WINS));
+            assertEquals(1, writer.addGame(moves("k1-k2 c7-c6"), GameRecord.DRAW));
+        }
+
+        try (GameDatabase database = new GameDatabase(file)) {
+            assertEquals(2, database.getGameCount());
+            long afterRejectedMove = keyAfter("e4-e5");
+            assertEquals(0, database.countGames(afterRejectedMove));
+            assertArrayEquals(new int[0], database.findGames(afterRejectedMove, 10));
+            assertArrayEquals(new int[]{0, 1}, database.findGames(keyAfter("k1-k2"), 10));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PieceType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.vsu.cs.tolkacheva_u_a.task2.utils.TestGames.moves;
+
+/**
+ * Проверяет, что {@link GameRecordReader} читает то, что записал {@link GameRecordWriter}.
+ */
+class GameRecordTest {
+    private static final String[] RESULTS = {
+            GameRecord.WHITE_WINS, GameRecord.BLACK_WINS, GameRecord.DRAW, GameRecord.UNFINISHED
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void gamesRoundTrip() throws IOException {
+        Path file = directory.resolve("games.txt");
+        List<MoveList> games = randomGames(40);
+        writeGames(file, games);
+
+        String text = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(text.contains("=Q"), "В партиях нет превращений");
+        assertTrue(text.contains("x"), "В партиях нет взятий");
+        checkGames(file, games);
+    }
+
+    @Test
+    void crlfLineEndingsAreAccepted() throws IOException {
+        Path file = directory.resolve("games.txt");
+        List<MoveList> games = randomGames(10);
+        writeGames(file, games);
+
+        String text = Files.readString(file, StandardCharsets.UTF_8);
+        Files.writeString(file, text.replace("\r\n", "\n").replace("\n", "\r\n"), StandardCharsets.UTF_8);
+        checkGames(file, games);
+    }
+
+    @Test
+    void truncatedGameIsFollowedByNextGame() throws IOException {
+        Path file = directory.resolve("games.txt");
+        MoveList truncated = moves("k1-k2 c7-c6 e4-e5");
+        try (GameRecordWriter writer = new GameRecordWriter(file, true)) {
+            writer.beginGame(tags(0), new Board());
+            for (int i = 0; i < truncated.size(); i++) {
+                writer.writeMove(PieceType.PAWN, truncated.get(i));
+            }
+        }
+        MoveList next = moves("c1-e3 i8-h8");
+        try (GameRecordWriter writer = new GameRecordWriter(file, false)) {
+            writer.writeGame(tags(1), next, GameRecord.BLACK_WINS);
+        }
+
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            GameRecord first = reader.next();
+            assertEquals(tags(0), first.getTags());
+            assertMoves(truncated, first.getMoves(), "оборванная партия");
+            assertEquals(GameRecord.UNFINISHED, first.getResult());
+
+            GameRecord second = reader.next();
+            assertEquals(tags(1), second.getTags());
+            assertMoves(next, second.getMoves(), "следующая партия");
+            assertEquals(GameRecord.BLACK_WINS, second.getResult());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void malformedTagsAreRejected() throws IOException {
+        String[] malformed = {
+                "[Event \"Турнир]",
+                "[Event Турнир]",
+                "[ \"Турнир\"]",
+                "[Event",
+                "[Event \"Турнир\\\"]",
+        };
+        for (String tag : malformed) {
+            checkRejected(tag + "\n\n1. k1-k2 *\n");
+        }
+    }
+
+    @Test
+    void malformedMovesAreRejected() throws IOException {
+        String[] malformed = {"k1k2", "Zk1-k2", "k1-z2", "k1-k", "k1+k2", "-k2", "k1-k2=", "k1-k2=X", "k1-k2?",
+                "k1-k99", "k1xk2x"};
+        for (String move : malformed) {
+            checkRejected("[Event \"Турнир\"]\n\n1. " + move + " c7-c6 1-0\n");
+        }
+    }
+
+    private void checkRejected(String text) throws IOException {
+        Path file = directory.resolve("bad.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            assertThrows(IOException.class, reader::next, text);
+        }
+    }
+
+    private static List<MoveList> randomGames(int count) {
+        SplittableRandom random = new SplittableRandom(11);
+        List<MoveList> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            games.add(TestGames.randomGame(random, 400));
+        }
+        return games;
+    }
+
+    private static void writeGames(Path file, List<MoveList> games) throws IOException {
+        try (GameRecordWriter writer = new GameRecordWriter(file, false)) {
+            for (int i = 0; i < games.size(); i++) {
+                writer.writeGame(tags(i), games.get(i), RESULTS[i % RESULTS.length]);
+            }
+        }
+    }
+
+    private static void checkGames(Path file, List<MoveList> games) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            for (int i = 0; i < games.size(); i++) {
+                GameRecord record = reader.next();
+                assertEquals(tags(i), record.getTags(), "партия " + i);
+                assertMoves(games.get(i), record.getMoves(), "партия " + i);
+                assertEquals(RESULTS[i % RESULTS.length], record.getResult(), "партия " + i);
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    private static Map<String, String> tags(int game) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Турнир \"Глинский\" \\ " + game);
+        tags.put("Round", Integer.toString(game + 1));
+        return tags;
+    }
+
+    /**
+     * Сравнивает ходы без флага двойного шага: в записи партии его нет.
+     */
+    private static void assertMoves(MoveList expected, MoveList actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i) & ~PackedMove.DOUBLE_PAWN_PUSH, actual.get(i), message + ", ход " + (i + 1));
+        }
+    }
+}
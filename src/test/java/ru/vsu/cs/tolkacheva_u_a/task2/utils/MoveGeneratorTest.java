@@ -0,0 +1,63 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.Main.PlayerColor;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.HexGrid;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Piece;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoveGeneratorTest {
+    private static final int GAMES = 20;
+    private static final int PLIES = 150;
+
+    @Test
+    void legalMovesMatchValidatorOnRandomGames() {
+        SplittableRandom random = new SplittableRandom(7);
+        MoveList moves = new MoveList();
+
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new Board();
+            MoveValidator validator = new MoveValidator(board);
+            MoveGenerator generator = new MoveGenerator(board);
+
+            for (int ply = 0; ply < PLIES; ply++) {
+                PlayerColor side = board.getCurrentPlayer();
+                moves.clear();
+                generator.generateLegalMoves(side, moves);
+
+                Set<Integer> generated = new HashSet<>();
+                for (int i = 0; i < moves.size(); i++) {
+                    generated.add(PackedMove.squares(moves.get(i)));
+                }
+                Set<Integer> valid = new HashSet<>();
+                for (Piece piece : board.getPieces()) {
+                    int from = HexGrid.indexOf(piece.getPosition());
+                    for (int to = 0; to < HexGrid.CELL_COUNT; to++) {
+                        if (validator.isValidMove(piece, HexGrid.cellAt(to))) {
+                            valid.add(PackedMove.of(from, to));
+                        }
+                    }
+                }
+
+                String position = PositionNotation.format(board);
+                assertEquals(moves.size(), generated.size(), () -> "Повторяющиеся ходы в позиции " + position);
+                assertEquals(valid, generated, () -> "Позиция " + position);
+                assertEquals(!valid.isEmpty(), generator.hasLegalMoves(side), () -> "Позиция " + position);
+                assertEquals(!valid.isEmpty(), validator.hasLegalMoves(side), () -> "Позиция " + position);
+
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int move = moves.get(random.nextInt(moves.size()));
+                board.movePiece(board.getPieceAt(PackedMove.from(move)), HexGrid.cellAt(PackedMove.to(move)));
+            }
+        }
+    }
+}
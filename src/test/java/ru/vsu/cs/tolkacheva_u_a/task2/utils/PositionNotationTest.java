@@ -0,0 +1,121 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.tools.Perft;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверяет, что запись позиции читается и пишется без потерь.
+ */
+class PositionNotationTest {
+    @Test
+    void startPositionRoundTrip() {
+        Board board = PositionNotation.parse(PositionNotation.START_POSITION);
+
+        assertEquals(PositionNotation.START_POSITION, PositionNotation.format(board));
+        assertEquals(PositionNotation.START_POSITION, PositionNotation.format(new Board()));
+        assertEquals(new Board().getZobristKey(), board.getZobristKey());
+    }
+
+    @Test
+    void perftPositionsRoundTrip() throws IOException {
+        Set<String> games = readFixtureMoves();
+        assertFalse(games.isEmpty());
+
+        for (String moves : games) {
+            Board board = new Board();
+            Perft.playMoves(board, moves);
+            checkRoundTrip(board, moves);
+        }
+    }
+
+    @Test
+    void randomPositionsRoundTrip() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int game = 0; game < 50; game++) {
+            MoveList moves = TestGames.randomGame(random, 150);
+            Board board = new Board();
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(PackedMove.from(moves.get(i)), PackedMove.to(moves.get(i)));
+                checkRoundTrip(board, "партия " + game + ", полуход " + (i + 1));
+            }
+        }
+    }
+
+    @Test
+    void shortFormUsesDefaultCounters() {
+        String text = PositionNotation.START_POSITION.substring(0, PositionNotation.START_POSITION.length() - 4);
+        Board board = PositionNotation.parse(text);
+
+        assertEquals(PositionNotation.START_POSITION, PositionNotation.format(board));
+    }
+
+    @Test
+    void malformedPositionsAreRejected() {
+        String[] placement = PositionNotation.START_POSITION.split(" ", 2);
+        String rest = " " + placement[1];
+        String[] malformed = {
+                "",
+                placement[0] + " w b1k7 - 0",
+                placement[0] + " w b1k7 - 0 1 x",
+                placement[0].replace("kbq", "kbx") + rest,
+                placement[0].replace("n1b1n", "n2b1n") + rest,
+                placement[0].replace("n1b1n", "n0b1n") + rest,
+                placement[0].replace("n1b1n", "nb1n") + rest,
+                placement[0].replace("r5r", "r5rr") + rest,
+                placement[0] + "/11" + rest,
+                placement[0].substring(placement[0].indexOf('/') + 1) + rest,
+                placement[0].replace("kbq", "bbq") + rest,
+                placement[0] + " x b1k7 - 0 1",
+                placement[0] + " w c2 - 0 1",
+                placement[0] + " w b1k7 z9 0 1",
+                placement[0] + " w b1k7 - -1 1",
+                placement[0] + " w b1k7 - 0 0",
+                placement[0] + " w b1k7 - 0 one",
+        };
+
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> PositionNotation.parse(text), text);
+        }
+    }
+
+    private static void checkRoundTrip(Board board, String message) {
+        String text = PositionNotation.format(board);
+        Board parsed = PositionNotation.parse(text);
+
+        assertEquals(text, PositionNotation.format(parsed), message);
+        assertEquals(board.getZobristKey(), parsed.getZobristKey(), message);
+    }
+
+    private static Set<String> readFixtureMoves() throws IOException {
+        Set<String> games = new LinkedHashSet<>();
+        try (InputStream in = PositionNotationTest.class.getResourceAsStream("/perft.txt")) {
+            assertNotNull(in, "Не найден файл эталонов perft.txt");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    String[] parts = line.split("\\s+", 3);
+                    games.add(parts.length > 2 ? parts[2] : "");
+                }
+            }
+        }
+        return games;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.vsu.cs.tolkacheva_u_a.task2.utils;
+
+import ru.vsu.cs.tolkacheva_u_a.task2.model.BitBoard;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.Board;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.MoveList;
+import ru.vsu.cs.tolkacheva_u_a.task2.model.PackedMove;
+import ru.vsu.cs.tolkacheva_u_a.task2.tools.Perft;
+import java.util.SplittableRandom;
+
+/**
+ * Партии от начальной расстановки для тестов баз партий и книги дебютов.
+ */
+public final class TestGames {
+    private TestGames() {
+    }
+
+    /**
+     * Разбирает ходы вида "k1-k2 c7-c6" от начальной расстановки.
+     * Возвращает ходы с флагами взятия и превращения, как их выдает генератор.
+     * @throws IllegalArgumentException если ход недопустим
+     */
+    public static MoveList moves(String text) {
+        BitBoard board = new BitBoard(new Board());
+        MoveList moves = new MoveList();
+        MoveList legal = new MoveList();
+        for (String name : text.trim().split("\\s+")) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            int from = PackedMove.from(move(name));
+            int to = PackedMove.to(move(name));
+
+            legal.clear();
+            board.generateLegalMoves(legal);
+            int move = legal.find(from, to);
+            if (move == PackedMove.NONE) {
+                throw new IllegalArgumentException("Недопустимый ход: " + name);
+            }
+            moves.add(move);
+            board.makeMove(from, to);
+        }
+        return moves;
+    }
+
+    /**
+     * Возвращает поля хода вида "k1-k2" без флагов и без проверки по правилам.
+     */
+    public static int move(String name) {
+        String[] cells = name.split("-");
+        return PackedMove.of(GlinskiNotation.parseCell(cells[0]), GlinskiNotation.parseCell(cells[1]));
+    }
+
+    /**
+     * Возвращает ключ позиции после ходов text от начальной расстановки.
+     */
+    public static long keyAfter(String text) {
+        BitBoard board = new BitBoard(new Board());
+        Perft.playMoves(board, text);
+        return board.getZobristKey();
+    }
+
+    /**
+     * Играет случайную партию не длиннее maxPlies полуходов от начальной расстановки.
+     */
+    public static MoveList randomGame(SplittableRandom random, int maxPlies) {
+        BitBoard board = new BitBoard(new Board());
+        MoveList moves = new MoveList();
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < maxPlies; ply++) {
+            legal.clear();
+            board.generateLegalMoves(legal);
+            if (legal.isEmpty()) {
+                break;
+            }
+            int move = legal.get(random.nextInt(legal.size()));
+            moves.add(move);
+            board.makeMove(PackedMove.from(move), PackedMove.to(move));
+        }
+        return moves;
+    }
+}